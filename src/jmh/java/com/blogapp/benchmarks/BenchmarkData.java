@@ -0,0 +1,156 @@
+package com.blogapp.benchmarks;
+
+import com.blogapp.models.Comment;
+import com.blogapp.models.Post;
+import com.blogapp.models.Tag;
+import com.blogapp.models.User;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Deterministic generators for realistic post content and entity graphs. */
+final class BenchmarkData {
+
+  private static final String[] WORDS = {
+    "spring", "postgres", "latency", "cache", "index", "query", "thread", "request", "the",
+    "a", "of", "and", "to", "in", "is", "that", "for", "with", "performance", "benchmark",
+    "hibernate", "transaction", "connection", "pool", "response", "template", "render"
+  };
+  private static final String[] TERMINATORS = {".", ".", ".", "!", "?"};
+  private static final String[] SYLLABLES = {
+    "ka", "lo", "mi", "ne", "su", "tar", "ven", "dro", "pli", "ex", "con", "fer", "ing", "tion",
+    "al", "ed", "re", "com", "pro", "ver", "ter", "ment", "ly", "st", "or", "an", "is", "ri"
+  };
+  private static final String[] PROSE_VOCABULARY = vocabulary(4000, 7);
+  private static final double[] PROSE_CUMULATIVE = zipfCumulative(PROSE_VOCABULARY.length, 1.1);
+
+  private BenchmarkData() {}
+
+  /** Prose of roughly {@code length} characters made of 8-25 word sentences. */
+  static String content(int length, long seed) {
+    Random random = new Random(seed);
+    StringBuilder content = new StringBuilder(length + 200);
+    while (content.length() < length) {
+      int words = 8 + random.nextInt(18);
+      for (int i = 0; i < words; i++) {
+        String word = WORDS[random.nextInt(WORDS.length)];
+        content.append(i == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word);
+        content.append(i < words - 1 ? " " : TERMINATORS[random.nextInt(TERMINATORS.length)]);
+      }
+      content.append(random.nextInt(10) == 0 ? "\n\n" : " ");
+    }
+    return content.toString();
+  }
+
+  /**
+   * Prose of roughly {@code length} characters over a 4000-word, Zipf-distributed vocabulary with
+   * numbers and commas, which compresses about as well as real articles; {@link #content} repeats
+   * a few dozen words and compresses far better than anything a user would write.
+   */
+  static String prose(int length, long seed) {
+    Random random = new Random(seed);
+    StringBuilder prose = new StringBuilder(length + 200);
+    while (prose.length() < length) {
+      int words = 6 + random.nextInt(22);
+      for (int i = 0; i < words; i++) {
+        String word =
+            random.nextInt(40) == 0
+                ? Integer.toString(random.nextInt(10_000))
+                : PROSE_VOCABULARY[zipfIndex(random.nextDouble())];
+        prose.append(i == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word);
+        if (i < words - 1) {
+          prose.append(random.nextInt(12) == 0 ? ", " : " ");
+        } else {
+          prose.append(TERMINATORS[random.nextInt(TERMINATORS.length)]);
+        }
+      }
+      prose.append(random.nextInt(6) == 0 ? "\n\n" : " ");
+    }
+    return prose.toString();
+  }
+
+  private static String[] vocabulary(int size, long seed) {
+    Random random = new Random(seed);
+    Set<String> words = new LinkedHashSet<>();
+    while (words.size() < size) {
+      StringBuilder word = new StringBuilder();
+      int syllables = 1 + random.nextInt(4);
+      for (int i = 0; i < syllables; i++) {
+        word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+      }
+      words.add(word.toString());
+    }
+    return words.toArray(String[]::new);
+  }
+
+  private static double[] zipfCumulative(int size, double exponent) {
+    double[] cumulative = new double[size];
+    double total = 0;
+    for (int rank = 1; rank <= size; rank++) {
+      total += 1 / Math.pow(rank, exponent);
+      cumulative[rank - 1] = total;
+    }
+    for (int i = 0; i < size; i++) {
+      cumulative[i] /= total;
+    }
+    return cumulative;
+  }
+
+  private static int zipfIndex(double uniform) {
+    int index = Arrays.binarySearch(PROSE_CUMULATIVE, uniform);
+    return Math.min(index >= 0 ? index : -index - 1, PROSE_CUMULATIVE.length - 1);
+  }
+
+  static String tagList(int tagCount) {
+    List<String> names = new ArrayList<>(tagCount);
+    for (int i = 0; i < tagCount; i++) {
+      names.add(" Tag-" + i + " ");
+    }
+    return String.join(",", names);
+  }
+
+  static Set<Tag> tags(int tagCount) {
+    Set<Tag> tags = new LinkedHashSet<>();
+    for (int i = 0; i < tagCount; i++) {
+      Tag tag = new Tag();
+      ReflectionTestUtils.setField(tag, "id", (long) i + 1);
+      tag.setName("tag-" + i);
+      tags.add(tag);
+    }
+    return tags;
+  }
+
+  static Post post(long id, int contentLength, int tagCount, int commentCount) {
+    User author = new User();
+    author.setName("Author " + id);
+
+    Post post = new Post();
+    ReflectionTestUtils.setField(post, "id", id);
+    post.setTitle("Post number " + id);
+    post.setContent(content(contentLength, id));
+    post.setExcerpt(post.getContent().substring(0, Math.min(200, contentLength)));
+    post.setAuthor(author);
+    post.setTags(tags(tagCount));
+    post.setPublishedAt(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(id * 3600));
+    post.setPublished(true);
+
+    List<Comment> comments = new ArrayList<>(commentCount);
+    for (int i = 0; i < commentCount; i++) {
+      Comment comment = new Comment();
+      ReflectionTestUtils.setField(comment, "id", id * 1000 + i);
+      ReflectionTestUtils.setField(comment, "createdAt", post.getPublishedAt().plusSeconds(i));
+      comment.setCommentWriterName("Reader " + i);
+      comment.setEmail("reader" + i + "@example.com");
+      comment.setCommentContent(content(300, id * 1000 + i));
+      comment.setPost(post);
+      comments.add(comment);
+    }
+    post.setComments(comments);
+    return post;
+  }
+}
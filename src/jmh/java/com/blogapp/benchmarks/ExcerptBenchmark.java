@@ -0,0 +1,43 @@
+package com.blogapp.benchmarks;
+
+import com.blogapp.services.PostService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** {@link PostService#getExcerpt} over short, typical and very long posts. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExcerptBenchmark {
+
+  @Param({"500", "5000", "100000"})
+  public int contentLength;
+
+  private PostService postService;
+  private String content;
+
+  @Setup
+  public void setUp() {
+    postService = new PostService(null, null, null, null, null, null, new SimpleMeterRegistry());
+    content = BenchmarkData.content(contentLength, 42);
+  }
+
+  @Benchmark
+  public String excerpt() {
+    return postService.getExcerpt(content);
+  }
+}
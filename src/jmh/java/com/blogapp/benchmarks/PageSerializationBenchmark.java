@@ -0,0 +1,58 @@
+package com.blogapp.benchmarks;
+
+import com.blogapp.dtos.PostResponseDto;
+import com.blogapp.services.PostResponseMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/** Jackson serialization of a {@code Page<PostResponseDto>} as returned by {@code /api/posts}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+  @Param({"10", "50"})
+  public int pageSize;
+
+  @Param({"2000", "20000"})
+  public int contentLength;
+
+  private ObjectMapper objectMapper;
+  private Page<PostResponseDto> page;
+
+  @Setup
+  public void setUp() {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    PostResponseMapper mapper = new PostResponseMapper();
+    List<PostResponseDto> posts = new ArrayList<>(pageSize);
+    for (int i = 0; i < pageSize; i++) {
+      posts.add(mapper.toPostResponse(BenchmarkData.post(i + 1, contentLength, 4, 10)));
+    }
+    page = new PageImpl<>(posts, PageRequest.of(0, pageSize), 1000);
+  }
+
+  @Benchmark
+  public byte[] serializePage() throws Exception {
+    return objectMapper.writeValueAsBytes(page);
+  }
+}
@@ -0,0 +1,62 @@
+package com.blogapp.benchmarks;
+
+import com.blogapp.models.PostBodyCodec;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PostBodyCodec} encode and decode cost. The setup prints the stored size for each case,
+ * so the time per operation can be weighed against the bytes saved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostBodyCompressionBenchmark {
+
+  @Param({"2000", "20000", "200000"})
+  public int contentLength;
+
+  @Param({"1", "6"})
+  public int level;
+
+  private PostBodyCodec codec;
+  private String body;
+  private byte[] stored;
+
+  @Setup
+  public void setUp() {
+    codec = new PostBodyCodec(0, level);
+    body = BenchmarkData.prose(contentLength, 42);
+    stored = codec.encode(body);
+    System.out.printf(
+        "%n%d chars at level %d: %d bytes raw, %d bytes stored (%.1f%%)%n",
+        body.length(),
+        level,
+        body.length(),
+        stored.length,
+        100.0 * stored.length / body.length());
+  }
+
+  @Benchmark
+  public byte[] encode() {
+    return codec.encode(body);
+  }
+
+  @Benchmark
+  public String decode() {
+    return codec.decode(stored);
+  }
+}
@@ -0,0 +1,44 @@
+package com.blogapp.benchmarks;
+
+import com.blogapp.dtos.PostResponseDto;
+import com.blogapp.models.Post;
+import com.blogapp.services.PostResponseMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Entity-to-DTO mapping used by the posts API. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostMappingBenchmark {
+
+  @Param({"0", "20", "200"})
+  public int commentCount;
+
+  private PostResponseMapper mapper;
+  private Post post;
+
+  @Setup
+  public void setUp() {
+    mapper = new PostResponseMapper();
+    post = BenchmarkData.post(1, 5000, 5, commentCount);
+  }
+
+  @Benchmark
+  public PostResponseDto toPostResponse() {
+    return mapper.toPostResponse(post);
+  }
+}
@@ -0,0 +1,54 @@
+package com.blogapp.benchmarks;
+
+import com.blogapp.models.Post;
+import com.blogapp.models.Tag;
+import com.blogapp.services.TagService;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Tag list parsing and formatting. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagBenchmark {
+
+  @Param({"3", "10", "50"})
+  public int tagCount;
+
+  private TagService tagService;
+  private String tagList;
+  private Post post;
+  private Set<Tag> tags;
+
+  @Setup
+  public void setUp() {
+    tagService = new TagService(null, null, null);
+    tagList = BenchmarkData.tagList(tagCount);
+    post = new Post();
+    tags = BenchmarkData.tags(tagCount);
+  }
+
+  @Benchmark
+  public String[] extractTags() {
+    return tagService.extractTags(tagList);
+  }
+
+  @Benchmark
+  public String convertSetOfTagToString() {
+    return post.convertSetOfTagToString(tags);
+  }
+}
@@ -1,18 +1,21 @@
 package com.blogapp.api.controllers;
 
-import com.blogapp.dtos.CommentResponseDto;
+import com.blogapp.dtos.PostBatchResponseDto;
 import com.blogapp.dtos.PostFormDto;
 import com.blogapp.dtos.PostResponseDto;
-import com.blogapp.dtos.TagResponseDto;
-import com.blogapp.dtos.UserResponseDto;
 import com.blogapp.exceptions.NoPostException;
 import com.blogapp.models.Post;
 import com.blogapp.models.Role;
 import com.blogapp.models.User;
 import com.blogapp.security.CustomUserDetails;
+import com.blogapp.services.PostResponseCache;
+import com.blogapp.services.PostResponseMapper;
 import com.blogapp.services.PostService;
+import com.blogapp.services.PostViewCounter;
 import com.blogapp.services.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -25,12 +28,15 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController("apiPostController")
@@ -39,29 +45,64 @@ public class PostController {
 
     private final PostService postService;
     private final UserService userService;
+    private final PostResponseMapper postResponseMapper;
+    private final PostResponseCache postResponseCache;
+    private final PostViewCounter postViewCounter;
+    private final int maxBatchIds;
 
     @Autowired
-    public PostController(PostService postService, UserService userService) {
+    public PostController(PostService postService, UserService userService,
+                          PostResponseMapper postResponseMapper, PostResponseCache postResponseCache,
+                          PostViewCounter postViewCounter,
+                          @Value("${blogapp.posts.batch.max-ids:100}") int maxBatchIds) {
         this.postService = postService;
         this.userService = userService;
+        this.postResponseMapper = postResponseMapper;
+        this.postResponseCache = postResponseCache;
+        this.postViewCounter = postViewCounter;
+        this.maxBatchIds = maxBatchIds;
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PostResponseDto> getPost(@PathVariable long id) {
+    public ResponseEntity<PostResponseDto> getPost(@PathVariable long id, HttpServletRequest request,
+                                                   @RequestHeader(value = "User-Agent", required = false) String userAgent) {
         ResponseEntity<PostResponseDto> responseEntity;
         try {
-            Post post =
-                    postService
-                            .getPost(id)
+            PostResponseDto post =
+                    postResponseCache
+                            .get(id)
                             .orElseThrow(() -> new NoPostException("Post with the id " + id + " doesn't exist!", id));
+            postViewCounter.record(id, request.getRemoteAddr(), userAgent);
 
-            responseEntity = new ResponseEntity<>(toPostResponse(post), HttpStatus.OK);
+            responseEntity = new ResponseEntity<>(post, HttpStatus.OK);
         } catch (Exception e) {
             responseEntity = new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         }
         return responseEntity;
     }
 
+    /** Several posts in request order, with the ids that matched no post; views are not counted. */
+    @GetMapping(params = "ids")
+    public PostBatchResponseDto getPosts(@RequestParam("ids") List<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        if (distinctIds.size() > maxBatchIds) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "At most " + maxBatchIds + " ids can be requested at once");
+        }
+        Map<Long, PostResponseDto> found = postResponseCache.getAll(distinctIds);
+        List<PostResponseDto> posts = new ArrayList<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            PostResponseDto post = found.get(id);
+            if (post != null) {
+                posts.add(post);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new PostBatchResponseDto(posts, missingIds);
+    }
+
     @GetMapping
     public Page<PostResponseDto> getAllPosts(
             @RequestParam(name = "start", required = false) Integer start,
@@ -69,11 +110,22 @@ public class PostController {
             @RequestParam(name = "authorId", required = false) Long authorId,
             @RequestParam(name = "tagId", required = false) List<Long> tagIds,
             @RequestParam(name = "order", required = false) String order,
-            @RequestParam(name = "search", required = false) String search) {
+            @RequestParam(name = "search", required = false) String search,
+            @RequestParam(name = "fields", required = false) List<String> fields) {
 
         int resolvedLimit = (limit != null && limit > 0) ? limit : 10;
         int resolvedStart = (start != null && start > 0) ? start : 1;
         int pageNumber = (resolvedStart - 1) / resolvedLimit;
+        boolean includeContent = fields != null && fields.contains("content");
+
+        if (PostService.TRENDING.equalsIgnoreCase(order)) {
+            if (authorId != null || (tagIds != null && !tagIds.isEmpty()) || (search != null && !search.isBlank())) {
+                throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST, "order=trending cannot be combined with filters");
+            }
+            return toSummaries(
+                    postService.getTrendingPosts(PageRequest.of(pageNumber, resolvedLimit)), includeContent);
+        }
 
         Sort.Direction direction = "ASC".equalsIgnoreCase(order) ? Sort.Direction.ASC : Sort.Direction.DESC;
         Sort sort = Sort.by(direction, "publishedAt");
@@ -104,7 +156,20 @@ public class PostController {
 
         Page<Post> page =
                 postService.searchPosts(authorNames, sanitizedTagIds, sanitizedSearch, null, null, pageable);
-        return page.map(this::toPostResponse);
+        return toSummaries(page, includeContent);
+    }
+
+    /** Listing entries without comments; bodies only on request ({@code fields=content}), in one query. */
+    private Page<PostResponseDto> toSummaries(Page<Post> page, boolean includeContent) {
+        if (!includeContent) {
+            return page.map(postResponseMapper::toPostSummary);
+        }
+        Map<Long, String> contents = postService.getContents(page.map(Post::getId).getContent());
+        return page.map(post -> {
+            PostResponseDto summary = postResponseMapper.toPostSummary(post);
+            summary.setContent(contents.get(post.getId()));
+            return summary;
+        });
     }
 
     @PostMapping
@@ -116,12 +181,9 @@ public class PostController {
         post.setContent(postFormDto.getContent());
         post.setAuthor(author);
 
-        Post saved =
-                postFormDto.getTagListString() == null
-                        ? postService.savePost(post)
-                        : postService.savePostWithTags(post, postFormDto.getTagListString());
+        Post saved = postService.savePostWithTags(post, postFormDto.getTagListString());
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(toPostResponse(saved));
+        return ResponseEntity.status(HttpStatus.CREATED).body(postResponseMapper.toPostResponse(saved));
     }
 
     @PatchMapping("/{id}")
@@ -157,12 +219,11 @@ public class PostController {
         }
 
         String titleToSet = postFormDto.getTitle() != null ? postFormDto.getTitle() : post.getTitle();
-        String contentToSet = postFormDto.getContent() != null ? postFormDto.getContent() : post.getContent();
 
         postService.updatePostWithTags(
                 id,
                 titleToSet,
-                contentToSet,
+                postFormDto.getContent(),
                 tagListString,
                 authorToSet);
 
@@ -170,7 +231,7 @@ public class PostController {
                 postService.getPost(id)
                         .orElseThrow(() -> new NoPostException("Post with the id " + id + " doesn't exist!", id));
 
-        return ResponseEntity.ok(toPostResponse(updated));
+        return ResponseEntity.ok(postResponseMapper.toPostResponse(updated));
     }
 
     @DeleteMapping("/{id}")
@@ -205,35 +266,4 @@ public class PostController {
         postFormDto.setAuthorId(currentUser.getId());
         return currentUser;
     }
-
-    private PostResponseDto toPostResponse(Post post) {
-        PostResponseDto postResponseDto = new PostResponseDto();
-        postResponseDto.setId(post.getId());
-        postResponseDto.setTitle(post.getTitle());
-        postResponseDto.setExcerpt(post.getExcerpt());
-        postResponseDto.setContent(post.getContent());
-
-        List<TagResponseDto> tagDtos =
-                post.getTags().stream()
-                        .map(tag -> new TagResponseDto(tag.getId(), tag.getName()))
-                        .collect(Collectors.toList());
-        postResponseDto.setTags(tagDtos);
-        postResponseDto.setAuthor(new UserResponseDto(post.getAuthor().getName()));
-
-        List<CommentResponseDto> commentDtos =
-                post.getComments().stream()
-                        .map(c -> new CommentResponseDto(
-                                c.getId(),
-                                c.getCommentContent(),
-                                c.getCommentWriterName(),
-                                c.getEmail(),
-                                c.getCreatedAt()))
-                        .collect(Collectors.toList());
-        postResponseDto.setComments(commentDtos);
-
-        postResponseDto.setPublishedAt(post.getPublishedAt());
-        postResponseDto.setPublished(post.isPublished());
-        return postResponseDto;
-    }
 }
-
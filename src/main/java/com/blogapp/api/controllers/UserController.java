@@ -4,8 +4,11 @@ import com.blogapp.dtos.LoginRequestDto;
 import com.blogapp.dtos.LoginResponseDto;
 import com.blogapp.dtos.SignUpRequestDto;
 import com.blogapp.dtos.SignUpResponseDto;
+import com.blogapp.exceptions.PasswordHashingRejectedException;
+import com.blogapp.exceptions.TooManyRequestsException;
 import com.blogapp.models.User;
 import com.blogapp.services.UserService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -44,6 +47,18 @@ public class UserController {
       LoginResponseDto responseDto =
           new LoginResponseDto(null, null, null, null, false, e.getMessage());
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(responseDto);
+    } catch (TooManyRequestsException e) {
+      LoginResponseDto responseDto =
+          new LoginResponseDto(null, null, null, null, false, e.getMessage());
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+          .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfterSeconds())))
+          .body(responseDto);
+    } catch (PasswordHashingRejectedException e) {
+      LoginResponseDto responseDto =
+          new LoginResponseDto(null, null, null, null, false, e.getMessage());
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+          .header(HttpHeaders.RETRY_AFTER, "1")
+          .body(responseDto);
     }
   }
 
@@ -0,0 +1,65 @@
+package com.blogapp.configurations;
+
+import com.blogapp.monitoring.ProfilingFilter;
+import com.blogapp.monitoring.ProfilingSessionEventListener;
+import com.blogapp.monitoring.RenderTimingInterceptor;
+import com.blogapp.monitoring.RepositoryProfilingAspect;
+import com.blogapp.monitoring.SlowRequestBuffer;
+import com.blogapp.monitoring.SlowRequestsEndpoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Opt-in request profiler ({@code blogapp.profiler.enabled=true}).
+ *
+ * <p>When disabled none of these beans exist and the instrumentation points in the code only see
+ * an empty thread-local.
+ */
+@Configuration
+@ConditionalOnProperty(name = "blogapp.profiler.enabled", havingValue = "true")
+public class ProfilerConfig implements WebMvcConfigurer {
+
+  @Bean
+  public SlowRequestBuffer slowRequestBuffer(
+      @Value("${blogapp.profiler.slowest-size:50}") int slowestSize) {
+    return new SlowRequestBuffer(slowestSize);
+  }
+
+  @Bean
+  public FilterRegistrationBean<ProfilingFilter> profilingFilter(
+      SlowRequestBuffer slowRequestBuffer) {
+    FilterRegistrationBean<ProfilingFilter> registration =
+        new FilterRegistrationBean<>(new ProfilingFilter(slowRequestBuffer));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+    return registration;
+  }
+
+  @Bean
+  public RepositoryProfilingAspect repositoryProfilingAspect() {
+    return new RepositoryProfilingAspect();
+  }
+
+  @Bean
+  public SlowRequestsEndpoint slowRequestsEndpoint(SlowRequestBuffer slowRequestBuffer) {
+    return new SlowRequestsEndpoint(slowRequestBuffer);
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer profilingSessionEvents() {
+    return properties ->
+        properties.put(
+            "hibernate.session.events.auto", ProfilingSessionEventListener.class.getName());
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new RenderTimingInterceptor());
+  }
+}
@@ -0,0 +1,15 @@
+package com.blogapp.configurations;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} background jobs (counter folds, view and trending flushes, outbox
+ * relay, backfills, session cleanup) unless {@code blogapp.scheduling.enabled=false}, which tests
+ * use to keep them off the database they tear down.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "blogapp.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {}
@@ -1,5 +1,7 @@
 package com.blogapp.configurations;
 
+import com.blogapp.monitoring.SecurityPhaseFilter;
+import com.blogapp.security.BoundedPasswordEncoder;
 import com.blogapp.security.CustomUserDetailsService;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Bean;
@@ -12,8 +14,9 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.session.DisableEncodeUrlFilter;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.servlet.util.matcher.MvcRequestMatcher;
 import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
 import org.springframework.security.config.Customizer;
@@ -23,10 +26,10 @@ import org.springframework.security.config.Customizer;
 public class SecurityConfig {
 
   private final CustomUserDetailsService customUserDetailsService;
-  private final BCryptPasswordEncoder passwordEncoder;
+  private final BoundedPasswordEncoder passwordEncoder;
 
   public SecurityConfig(
-      CustomUserDetailsService customUserDetailsService, BCryptPasswordEncoder passwordEncoder) {
+      CustomUserDetailsService customUserDetailsService, BoundedPasswordEncoder passwordEncoder) {
     this.customUserDetailsService = customUserDetailsService;
     this.passwordEncoder = passwordEncoder;
   }
@@ -51,12 +54,18 @@ public class SecurityConfig {
             .requestMatchers(HttpMethod.GET, "/api/**").permitAll()
             .requestMatchers(HttpMethod.POST, "/api/posts/*/comments").permitAll()
             .requestMatchers("/", "/login", "/register", "/css/**", "/js/**").permitAll()
+            .requestMatchers(HttpMethod.GET, "/feed.xml", "/authors/*/feed.xml", "/tags/*/feed.xml")
+            .permitAll()
+            .requestMatchers(HttpMethod.GET, "/sitemap.xml", "/sitemaps/*").permitAll()
             // Protect specific GET pages that should require authentication
             .requestMatchers(HttpMethod.GET, "/posts/new").authenticated()
             .requestMatchers(HttpMethod.GET, "/posts/*/edit").authenticated()
             .requestMatchers(HttpMethod.GET, "/posts/*/comments/*/edit").authenticated()
             .requestMatchers(HttpMethod.GET, "/posts/**").permitAll()
             .requestMatchers(HttpMethod.POST, "/posts/*/comments").permitAll()
+            .requestMatchers("/actuator/health/**").permitAll()
+            // Metrics name every URI, query shape and cache; the scraper authenticates as an admin.
+            .requestMatchers("/actuator/**").hasRole("ADMIN")
             .anyRequest().authenticated())
         .exceptionHandling(ex -> ex
             .defaultAuthenticationEntryPointFor(
@@ -72,7 +81,9 @@ public class SecurityConfig {
             .defaultSuccessUrl("/", true)
             .failureUrl("/login?error=true")
             .permitAll())
-        .logout(logout -> logout.logoutUrl("/logout").logoutSuccessUrl("/"));
+        .logout(logout -> logout.logoutUrl("/logout").logoutSuccessUrl("/"))
+        .addFilterBefore(SecurityPhaseFilter.start(), DisableEncodeUrlFilter.class)
+        .addFilterAfter(SecurityPhaseFilter.end(), AuthorizationFilter.class);
     return http.build();
   }
 }
@@ -0,0 +1,61 @@
+package com.blogapp.configurations;
+
+import com.blogapp.security.LazyTouchSessionRepository;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.FlushMode;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.SaveMode;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * HTTP session storage.
+ *
+ * <p>{@code blogapp.session.store=jdbc} (the default) keeps sessions in the shared Postgres tables
+ * so any node can serve any request; {@code memory} keeps them in-process for local development.
+ * The tables are created by the {@code V4__spring_session} migration.
+ */
+@Configuration
+@EnableSpringHttpSession
+public class SessionConfig {
+
+  @Bean
+  @ConditionalOnProperty(name = "blogapp.session.store", havingValue = "jdbc", matchIfMissing = true)
+  public LazyTouchSessionRepository sessionRepository(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${blogapp.session.timeout:30m}") Duration timeout,
+      @Value("${blogapp.session.touch-interval:1m}") Duration touchInterval) {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+    JdbcIndexedSessionRepository repository =
+        new JdbcIndexedSessionRepository(jdbcTemplate, transactionTemplate);
+    repository.setDefaultMaxInactiveInterval(timeout);
+    repository.setFlushMode(FlushMode.ON_SAVE);
+    repository.setSaveMode(SaveMode.ON_SET_ATTRIBUTE);
+    // Expiry is handled in batches by SessionCleanupJob.
+    repository.setCleanupCron(Scheduled.CRON_DISABLED);
+    repository.afterPropertiesSet();
+    return new LazyTouchSessionRepository(repository, touchInterval);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "blogapp.session.store", havingValue = "memory")
+  public MapSessionRepository inMemorySessionRepository(
+      @Value("${blogapp.session.timeout:30m}") Duration timeout) {
+    MapSessionRepository repository = new MapSessionRepository(new ConcurrentHashMap<>());
+    repository.setDefaultMaxInactiveInterval(timeout);
+    return repository;
+  }
+}
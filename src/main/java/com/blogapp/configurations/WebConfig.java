@@ -1,13 +1,21 @@
 package com.blogapp.configurations;
 
+import com.blogapp.monitoring.TemplateRenderEventInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.filter.HiddenHttpMethodFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
-public class WebConfig {
+public class WebConfig implements WebMvcConfigurer {
   @Bean
   public HiddenHttpMethodFilter hiddenHttpMethodFilter() {
     return new HiddenHttpMethodFilter();
   }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new TemplateRenderEventInterceptor());
+  }
 }
@@ -0,0 +1,74 @@
+package com.blogapp.controllers;
+
+import com.blogapp.services.FeedService;
+import com.blogapp.services.FeedService.Feed;
+import java.util.Optional;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.context.request.WebRequest;
+
+/** Atom feeds, served as precomputed bytes with ETag revalidation. */
+@Controller
+public class FeedController {
+
+  private static final MediaType ATOM = MediaType.parseMediaType("application/atom+xml");
+
+  private final FeedService feedService;
+
+  public FeedController(FeedService feedService) {
+    this.feedService = feedService;
+  }
+
+  @GetMapping("/feed.xml")
+  public ResponseEntity<byte[]> siteFeed(
+      WebRequest request,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    return serve(Optional.of(feedService.siteFeed()), request, acceptEncoding);
+  }
+
+  @GetMapping("/authors/{id}/feed.xml")
+  public ResponseEntity<byte[]> authorFeed(
+      @PathVariable long id,
+      WebRequest request,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    return serve(feedService.authorFeed(id), request, acceptEncoding);
+  }
+
+  @GetMapping("/tags/{name}/feed.xml")
+  public ResponseEntity<byte[]> tagFeed(
+      @PathVariable String name,
+      WebRequest request,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    return serve(feedService.tagFeed(name), request, acceptEncoding);
+  }
+
+  private ResponseEntity<byte[]> serve(
+      Optional<Feed> found, WebRequest request, String acceptEncoding) {
+    if (found.isEmpty()) {
+      return ResponseEntity.notFound().build();
+    }
+    Feed feed = found.get();
+    boolean gzip =
+        feed.gzipped() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+    // The compressed bytes are a different representation, so they get their own tag.
+    String etag = gzip ? feed.etag().replaceFirst("\"$", "-gzip\"") : feed.etag();
+    if (request.checkNotModified(etag, feed.updated().toEpochMilli())) {
+      return null;
+    }
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(ATOM)
+            .eTag(etag)
+            .lastModified(feed.updated())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(feed.gzipped());
+    }
+    return response.body(feed.xml());
+  }
+}
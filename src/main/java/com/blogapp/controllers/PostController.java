@@ -6,6 +6,7 @@ import com.blogapp.models.*;
 import com.blogapp.security.CustomUserDetails;
 import com.blogapp.services.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 import java.util.Set;
 
@@ -24,20 +25,28 @@ public class PostController {
 
   private final PostService postService;
   private final UserService userService;
+  private final PostViewCounter postViewCounter;
 
   @Autowired
-  public PostController(PostService postService, UserService userService) {
+  public PostController(
+      PostService postService, UserService userService, PostViewCounter postViewCounter) {
     this.postService = postService;
     this.userService = userService;
+    this.postViewCounter = postViewCounter;
   }
 
   @GetMapping("/posts/{id}")
   public String getPost(
-      @PathVariable long id, Model model, @AuthenticationPrincipal CustomUserDetails userDetails) {
+      @PathVariable long id,
+      Model model,
+      @AuthenticationPrincipal CustomUserDetails userDetails,
+      @RequestHeader(value = "User-Agent", required = false) String userAgent,
+      HttpServletRequest request) {
     Post post =
         postService
             .getPost(id)
             .orElseThrow(() -> new NoPostException("Post with the id " + id + " doesn't exist!", id));
+    postViewCounter.record(id, request.getRemoteAddr(), userAgent);
     model.addAttribute("post", post);
 
     boolean canEdit = false;
@@ -82,7 +91,7 @@ public class PostController {
     model.addAttribute("toDate", postParamFilterDto.getToDate());
     model.addAttribute("pageable", postPage.getPageable());
     model.addAttribute("direction", postParamFilterDto.getDirection());
-    model.addAttribute("sort", "publishedAt");
+    model.addAttribute("sort", postParamFilterDto.getSort());
     model.addAttribute("oldSearch", postParamFilterDto.getOldSearch());
     model.addAttribute("filters", postParamFilterDto);
 
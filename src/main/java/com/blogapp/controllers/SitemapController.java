@@ -0,0 +1,71 @@
+package com.blogapp.controllers;
+
+import com.blogapp.services.SitemapService;
+import com.blogapp.services.SitemapService.Sitemap;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.context.request.WebRequest;
+
+/** The sitemap index and its shards, served gzipped to clients that accept it. */
+@Controller
+public class SitemapController {
+
+  private final SitemapService sitemapService;
+
+  public SitemapController(SitemapService sitemapService) {
+    this.sitemapService = sitemapService;
+  }
+
+  @GetMapping("/sitemap.xml")
+  public ResponseEntity<byte[]> index(
+      WebRequest request,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    return serve(sitemapService.index(), request, acceptEncoding);
+  }
+
+  @GetMapping("/sitemaps/posts-{shard}.xml")
+  public ResponseEntity<byte[]> shard(
+      @PathVariable int shard,
+      WebRequest request,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    Sitemap sitemap = sitemapService.shard(shard);
+    if (sitemap == null) {
+      return ResponseEntity.notFound().build();
+    }
+    return serve(sitemap, request, acceptEncoding);
+  }
+
+  private ResponseEntity<byte[]> serve(Sitemap sitemap, WebRequest request, String acceptEncoding) {
+    boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+    String etag = gzip ? sitemap.etag().replaceFirst("\"$", "-gzip\"") : sitemap.etag();
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_XML)
+            .eTag(etag)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(sitemap.gzipped());
+    }
+    return response.body(gunzip(sitemap.gzipped()));
+  }
+
+  private static byte[] gunzip(byte[] gzipped) {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+      return in.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.blogapp.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostBatchResponseDto {
+    private List<PostResponseDto> posts;
+    private List<Long> missingIds;
+}
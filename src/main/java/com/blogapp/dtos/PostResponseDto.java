@@ -16,6 +16,10 @@ public class PostResponseDto {
     private List<TagResponseDto> tags;
     private UserResponseDto author;
     private List<CommentResponseDto> comments;
+    private long commentCount;
+    private Instant lastCommentAt;
+    private long viewCount;
+    private List<RelatedPostResponseDto> relatedPosts;
     private Instant publishedAt;
     private boolean isPublished;
 }
@@ -0,0 +1,15 @@
+package com.blogapp.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatedPostResponseDto {
+    private long id;
+    private String title;
+}
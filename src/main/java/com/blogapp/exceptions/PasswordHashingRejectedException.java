@@ -0,0 +1,13 @@
+package com.blogapp.exceptions;
+
+/** Exception indicating the password hashing pool is saturated and the request was shed. */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+  public PasswordHashingRejectedException(String message) {
+    super(message);
+  }
+
+  public PasswordHashingRejectedException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,16 @@
+package com.blogapp.exceptions;
+
+/** Exception indicating a caller exceeded its login or registration rate limit. */
+public class TooManyRequestsException extends RuntimeException {
+
+  private final long retryAfterSeconds;
+
+  public TooManyRequestsException(String message, long retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
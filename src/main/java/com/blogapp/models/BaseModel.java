@@ -5,8 +5,8 @@ import java.time.Instant;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Getter
@@ -24,5 +24,9 @@ public class BaseModel {
   @Column(updatable = false)
   private Instant createdAt;
 
-  @LastModifiedDate private Instant updatedAt;
+  /**
+   * Set by Hibernate on flush. An auditing listener's write is missed by the enhanced entities'
+   * dirty tracking, so it would never reach the UPDATE.
+   */
+  @UpdateTimestamp private Instant updatedAt;
 }
@@ -2,10 +2,16 @@ package com.blogapp.models;
 
 import jakarta.persistence.*;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnTransformer;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.LazyGroup;
+import org.hibernate.type.SqlTypes;
 
 @Getter
 @Setter
@@ -17,9 +23,38 @@ public class Post extends BaseModel {
   @Column(columnDefinition = "TEXT")
   private String excerpt;
 
-  @Column(columnDefinition = "TEXT", nullable = false)
+  /**
+   * The body in {@link PostBodyCodec}'s format. Loaded on first access (entities are
+   * bytecode-enhanced), so listings never read the body.
+   */
+  @Basic(fetch = FetchType.LAZY)
+  @Convert(converter = PostBodyConverter.class)
+  @Column(name = "content_encoded", columnDefinition = "BYTEA")
+  @Getter(AccessLevel.NONE)
   private String content;
 
+  /**
+   * The plain-text column bodies were stored in before {@link #content}. Cleared whenever the body
+   * is written, and by {@link com.blogapp.services.PostBodyCompressionJob} for older posts.
+   */
+  @Basic(fetch = FetchType.LAZY)
+  @Column(name = "content", columnDefinition = "TEXT")
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private String legacyContent;
+
+  /**
+   * Full-text index of the body, which is stored compressed and so cannot be searched with LIKE.
+   * Written alongside {@link #content}; never read.
+   */
+  @Basic(fetch = FetchType.LAZY)
+  @LazyGroup("search")
+  @ColumnTransformer(write = "to_tsvector('simple', ?)")
+  @Column(name = "content_tsv", columnDefinition = "tsvector")
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private String contentSearch;
+
   @ManyToMany
   @JoinTable(
       name = "post_tag",
@@ -32,11 +67,37 @@ public class Post extends BaseModel {
   private User author;
 
   @OneToMany(mappedBy = "post", cascade = CascadeType.REMOVE, orphanRemoval = true)
-  private List<Comment> comments;
+  private List<Comment> comments = new ArrayList<>();
 
   private Instant publishedAt;
   private boolean isPublished;
 
+  /** Maintained by {@link com.blogapp.services.CounterService}; may lag by one fold interval. */
+  @Column(insertable = false, updatable = false)
+  private long commentCount;
+
+  @Column(insertable = false, updatable = false)
+  private Instant lastCommentAt;
+
+  /** Maintained by {@link com.blogapp.services.PostViewCounter}; may lag by a flush and a fold. */
+  @Column(insertable = false, updatable = false)
+  private long viewCount;
+
+  /** Maintained by {@link com.blogapp.services.RelatedPosts}; null until first computed. */
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(insertable = false, updatable = false, columnDefinition = "jsonb")
+  private List<RelatedPost> relatedPosts;
+
+  public String getContent() {
+    return content != null ? content : legacyContent;
+  }
+
+  public void setContent(String content) {
+    this.content = content;
+    this.contentSearch = content;
+    this.legacyContent = null;
+  }
+
   public String convertSetOfTagToString(Set<Tag> tagSet) {
     if (tagSet == null || tagSet.isEmpty()) {
       return "";
@@ -0,0 +1,118 @@
+package com.blogapp.models;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Storage format of {@code post.content}.
+ *
+ * <p>The first byte is a format marker: {@link #RAW} is followed by the UTF-8 body, {@link
+ * #DEFLATE} by the body's UTF-8 length as a four-byte big-endian int and a raw deflate stream.
+ * Bodies shorter than {@code blogapp.posts.compression.threshold} bytes, or that deflate does not
+ * shrink, are stored raw.
+ */
+@Component
+public class PostBodyCodec {
+
+  public static final byte RAW = 0;
+  public static final byte DEFLATE = 1;
+
+  private final int threshold;
+  private final int level;
+
+  public PostBodyCodec(
+      @Value("${blogapp.posts.compression.threshold:4096}") int threshold,
+      @Value("${blogapp.posts.compression.level:6}") int level) {
+    this.threshold = threshold;
+    this.level = level;
+  }
+
+  public int threshold() {
+    return threshold;
+  }
+
+  public byte[] encode(String body) {
+    byte[] utf8 = body.getBytes(StandardCharsets.UTF_8);
+    if (utf8.length >= threshold) {
+      byte[] deflated = deflate(utf8);
+      if (deflated != null) {
+        return deflated;
+      }
+    }
+    byte[] stored = new byte[utf8.length + 1];
+    stored[0] = RAW;
+    System.arraycopy(utf8, 0, stored, 1, utf8.length);
+    return stored;
+  }
+
+  public String decode(byte[] stored) {
+    if (stored.length == 0) {
+      throw new IllegalArgumentException("Stored post body has no format marker");
+    }
+    return switch (stored[0]) {
+      case RAW -> new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+      case DEFLATE -> new String(inflate(stored), StandardCharsets.UTF_8);
+      default ->
+          throw new IllegalArgumentException("Unknown post body format marker " + stored[0]);
+    };
+  }
+
+  /** Deflated form with header, or {@code null} if it would not be smaller than the raw form. */
+  private byte[] deflate(byte[] utf8) {
+    Deflater deflater = new Deflater(level, true);
+    try {
+      deflater.setInput(utf8);
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream(utf8.length / 3 + 16);
+      out.write(DEFLATE);
+      out.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(utf8.length).array());
+      byte[] buffer = new byte[8192];
+      while (!deflater.finished()) {
+        out.write(buffer, 0, deflater.deflate(buffer));
+        if (out.size() > utf8.length) {
+          return null;
+        }
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static byte[] inflate(byte[] stored) {
+    if (stored.length < 1 + Integer.BYTES) {
+      throw new IllegalArgumentException("Truncated compressed post body");
+    }
+    int length = ByteBuffer.wrap(stored, 1, Integer.BYTES).getInt();
+    if (length < 0) {
+      throw new IllegalArgumentException("Corrupt compressed post body");
+    }
+    byte[] utf8 = new byte[length];
+    Inflater inflater = new Inflater(true);
+    try {
+      inflater.setInput(stored, 1 + Integer.BYTES, stored.length - 1 - Integer.BYTES);
+      int read = 0;
+      while (read < length && !inflater.finished()) {
+        int n = inflater.inflate(utf8, read, length - read);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        read += n;
+      }
+      if (read != length) {
+        throw new IllegalArgumentException("Truncated compressed post body");
+      }
+      return utf8;
+    } catch (DataFormatException e) {
+      throw new IllegalArgumentException("Corrupt compressed post body", e);
+    } finally {
+      inflater.end();
+    }
+  }
+}
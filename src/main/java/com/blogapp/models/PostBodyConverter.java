@@ -0,0 +1,25 @@
+package com.blogapp.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/** Maps {@link Post#getContent()} to its {@link PostBodyCodec} storage form. */
+@Converter
+public class PostBodyConverter implements AttributeConverter<String, byte[]> {
+
+  private final PostBodyCodec codec;
+
+  public PostBodyConverter(PostBodyCodec codec) {
+    this.codec = codec;
+  }
+
+  @Override
+  public byte[] convertToDatabaseColumn(String body) {
+    return body == null ? null : codec.encode(body);
+  }
+
+  @Override
+  public String convertToEntityAttribute(byte[] stored) {
+    return stored == null ? null : codec.decode(stored);
+  }
+}
@@ -0,0 +1,4 @@
+package com.blogapp.models;
+
+/** An entry of {@link Post#getRelatedPosts()}, carrying the title so it renders without a query. */
+public record RelatedPost(long id, String title) {}
@@ -15,6 +15,10 @@ public class Tag extends BaseModel implements Comparable<Tag> {
   @Column(unique = true, nullable = false)
   private String name;
 
+  /** Maintained by {@link com.blogapp.services.CounterService}; may lag by one fold interval. */
+  @Column(insertable = false, updatable = false)
+  private long postCount;
+
   @ManyToMany(mappedBy = "tags")
   private Set<Post> posts = new HashSet<>();
 
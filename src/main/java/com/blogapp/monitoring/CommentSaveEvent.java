@@ -0,0 +1,28 @@
+package com.blogapp.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** JFR event for persisting a comment. */
+@Name(CommentSaveEvent.NAME)
+@Label("Comment Save")
+@Category({"BlogApp", "Persistence"})
+@StackTrace(false)
+@Threshold("5 ms")
+public class CommentSaveEvent extends Event {
+
+  public static final String NAME = "blogapp.CommentSave";
+
+  @Label("Post Id")
+  public long postId;
+
+  @Label("Registered Author")
+  public boolean registeredAuthor;
+
+  @Label("Content Length")
+  public int contentLength;
+}
@@ -0,0 +1,28 @@
+package com.blogapp.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** JFR event for generating a post excerpt from its content. */
+@Name(ExcerptEvent.NAME)
+@Label("Excerpt Generation")
+@Category({"BlogApp", "Content"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class ExcerptEvent extends Event {
+
+  public static final String NAME = "blogapp.Excerpt";
+
+  @Label("Content Length")
+  @DataAmount(DataAmount.BYTES)
+  public int contentLength;
+
+  @Label("Excerpt Length")
+  @DataAmount(DataAmount.BYTES)
+  public int excerptLength;
+}
@@ -0,0 +1,73 @@
+package com.blogapp.monitoring;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Runs a continuous, size- and age-bounded flight recording with the blog events enabled at the
+ * configured thresholds.
+ *
+ * <p>The recording can be dumped at any time with {@code jcmd <pid> JFR.dump name=blogapp}. When
+ * no recording includes the blog events they cost a disabled-flag check at each call site.
+ */
+@Component
+@ConditionalOnProperty(name = "blogapp.jfr.enabled", havingValue = "true")
+public class FlightRecordingManager {
+
+  public static final String RECORDING_NAME = "blogapp";
+
+  private static final Logger log = LoggerFactory.getLogger(FlightRecordingManager.class);
+
+  private final Recording recording;
+
+  public FlightRecordingManager(
+      @Value("${blogapp.jfr.settings:default}") String settings,
+      @Value("${blogapp.jfr.max-age:6h}") Duration maxAge,
+      @Value("${blogapp.jfr.max-size:256MB}") DataSize maxSize,
+      @Value("${blogapp.jfr.dump-on-exit-path:}") String dumpOnExitPath,
+      @Value("${blogapp.jfr.threshold.search:10ms}") Duration searchThreshold,
+      @Value("${blogapp.jfr.threshold.tag-resolution:5ms}") Duration tagResolutionThreshold,
+      @Value("${blogapp.jfr.threshold.comment-save:5ms}") Duration commentSaveThreshold,
+      @Value("${blogapp.jfr.threshold.excerpt:1ms}") Duration excerptThreshold,
+      @Value("${blogapp.jfr.threshold.template-render:10ms}") Duration templateRenderThreshold)
+      throws IOException, ParseException {
+    this.recording = new Recording(Configuration.getConfiguration(settings));
+    recording.setName(RECORDING_NAME);
+    recording.setToDisk(true);
+    recording.setMaxAge(maxAge);
+    recording.setMaxSize(maxSize.toBytes());
+    if (StringUtils.hasText(dumpOnExitPath)) {
+      recording.setDumpOnExit(true);
+      recording.setDestination(Path.of(dumpOnExitPath));
+    }
+    recording.enable(PostSearchEvent.NAME).withThreshold(searchThreshold);
+    recording.enable(TagResolutionEvent.NAME).withThreshold(tagResolutionThreshold);
+    recording.enable(CommentSaveEvent.NAME).withThreshold(commentSaveThreshold);
+    recording.enable(ExcerptEvent.NAME).withThreshold(excerptThreshold);
+    recording.enable(TemplateRenderEvent.NAME).withThreshold(templateRenderThreshold);
+    recording.start();
+    log.info(
+        "Started flight recording '{}' with '{}' settings (max age {}, max size {})",
+        RECORDING_NAME,
+        settings,
+        maxAge,
+        maxSize);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    recording.close();
+  }
+}
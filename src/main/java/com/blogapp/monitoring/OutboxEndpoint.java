@@ -0,0 +1,37 @@
+package com.blogapp.monitoring;
+
+import com.blogapp.services.OutboxRelay;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admin view of outbox handler offsets and backlog at {@code /actuator/outbox}; a write rewinds a
+ * handler so it sees retained events again.
+ */
+@Component
+@Endpoint(id = "outbox")
+@ConditionalOnProperty(name = "blogapp.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxEndpoint {
+
+  private final OutboxRelay outboxRelay;
+
+  public OutboxEndpoint(OutboxRelay outboxRelay) {
+    this.outboxRelay = outboxRelay;
+  }
+
+  @ReadOperation
+  public List<OutboxRelay.HandlerStatus> handlers() {
+    return outboxRelay.status();
+  }
+
+  @WriteOperation
+  public boolean replay(String handler, @Nullable Instant from) {
+    return outboxRelay.replay(handler, from);
+  }
+}
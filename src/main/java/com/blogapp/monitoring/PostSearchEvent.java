@@ -0,0 +1,49 @@
+package com.blogapp.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** JFR event for one post search, tagged with the shape of the filter that was applied. */
+@Name(PostSearchEvent.NAME)
+@Label("Post Search")
+@Category({"BlogApp", "Search"})
+@Description("A filtered, paginated post search")
+@StackTrace(false)
+@Threshold("10 ms")
+public class PostSearchEvent extends Event {
+
+  public static final String NAME = "blogapp.PostSearch";
+
+  @Label("Filter Shape")
+  @Description("Which filters were applied, e.g. author+tag+text")
+  public String filterShape;
+
+  @Label("Author Count")
+  public int authorCount;
+
+  @Label("Tag Count")
+  public int tagCount;
+
+  @Label("Search Text Length")
+  public int searchTextLength;
+
+  @Label("Page")
+  public int page;
+
+  @Label("Page Size")
+  public int pageSize;
+
+  @Label("Sort")
+  public String sort;
+
+  @Label("Result Count")
+  public int resultCount;
+
+  @Label("Total Results")
+  public long totalResults;
+}
@@ -0,0 +1,71 @@
+package com.blogapp.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Profiles each request and reports the breakdown in a {@code Server-Timing} header.
+ *
+ * <p>The body is not buffered: the header is added just before the response commits, so a
+ * streamed or large response reports the phases up to its first flush. This filter is only
+ * registered when {@code blogapp.profiler.enabled=true}.
+ */
+public class ProfilingFilter extends OncePerRequestFilter {
+
+  public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+  private final SlowRequestBuffer slowRequestBuffer;
+
+  public ProfilingFilter(SlowRequestBuffer slowRequestBuffer) {
+    this.slowRequestBuffer = slowRequestBuffer;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    RequestProfile profile = new RequestProfile(request.getMethod(), request.getRequestURI());
+    ServerTimingResponse timedResponse = new ServerTimingResponse(response, profile);
+    RequestProfiler.bind(profile);
+    try {
+      filterChain.doFilter(request, timedResponse);
+    } finally {
+      RequestProfiler.unbind();
+      profile.markSecurityComplete();
+      profile.finish(response.getStatus());
+      if (!response.isCommitted()) {
+        timedResponse.addServerTiming();
+      }
+      slowRequestBuffer.offer(profile);
+    }
+  }
+
+  /** Adds the header once, from whichever comes first: the commit or the end of the chain. */
+  private static class ServerTimingResponse extends OnCommittedResponseWrapper {
+
+    private final RequestProfile profile;
+    private boolean headerAdded;
+
+    ServerTimingResponse(HttpServletResponse response, RequestProfile profile) {
+      super(response);
+      this.profile = profile;
+    }
+
+    @Override
+    protected void onResponseCommitted() {
+      addServerTiming();
+    }
+
+    void addServerTiming() {
+      if (!headerAdded) {
+        headerAdded = true;
+        setHeader(SERVER_TIMING_HEADER, profile.toServerTiming());
+      }
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package com.blogapp.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Hibernate session listener feeding connection-acquisition and statement-execution time into the
+ * current {@link RequestProfile}. Hibernate creates one instance per session.
+ */
+public class ProfilingSessionEventListener implements SessionEventListener {
+
+  private static final long serialVersionUID = 1L;
+
+  private transient long connectionAcquisitionStart = RequestProfiler.INACTIVE;
+  private transient long executeStart = RequestProfiler.INACTIVE;
+  private transient long batchStart = RequestProfiler.INACTIVE;
+
+  @Override
+  public void jdbcConnectionAcquisitionStart() {
+    connectionAcquisitionStart = RequestProfiler.start();
+  }
+
+  @Override
+  public void jdbcConnectionAcquisitionEnd() {
+    RequestProfiler.stop(RequestPhase.DB_WAIT, connectionAcquisitionStart);
+    connectionAcquisitionStart = RequestProfiler.INACTIVE;
+  }
+
+  @Override
+  public void jdbcExecuteStatementStart() {
+    executeStart = RequestProfiler.start();
+  }
+
+  @Override
+  public void jdbcExecuteStatementEnd() {
+    RequestProfiler.stop(RequestPhase.SQL, executeStart);
+    RequestProfiler.countStatement();
+    executeStart = RequestProfiler.INACTIVE;
+  }
+
+  @Override
+  public void jdbcExecuteBatchStart() {
+    batchStart = RequestProfiler.start();
+  }
+
+  @Override
+  public void jdbcExecuteBatchEnd() {
+    RequestProfiler.stop(RequestPhase.SQL, batchStart);
+    RequestProfiler.countStatement();
+    batchStart = RequestProfiler.INACTIVE;
+  }
+}
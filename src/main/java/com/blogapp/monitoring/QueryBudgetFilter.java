@@ -0,0 +1,114 @@
+package com.blogapp.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Tracks the SQL work done by each HTTP request and flags requests that exceed the configured
+ * query budget or repeat the same statement shape, the usual sign of an N+1 pattern.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "blogapp.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+  private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+  private final MeterRegistry meterRegistry;
+  private final int maxStatements;
+  private final int maxEntities;
+  private final int maxCollections;
+  private final int repeatedStatementThreshold;
+  private final DistributionSummary statementsPerRequest;
+
+  public QueryBudgetFilter(
+      MeterRegistry meterRegistry,
+      @Value("${blogapp.query-budget.max-statements:25}") int maxStatements,
+      @Value("${blogapp.query-budget.max-entities:500}") int maxEntities,
+      @Value("${blogapp.query-budget.max-collections:50}") int maxCollections,
+      @Value("${blogapp.query-budget.repeated-statement-threshold:5}")
+          int repeatedStatementThreshold) {
+    this.meterRegistry = meterRegistry;
+    this.maxStatements = maxStatements;
+    this.maxEntities = maxEntities;
+    this.maxCollections = maxCollections;
+    this.repeatedStatementThreshold = repeatedStatementThreshold;
+    this.statementsPerRequest =
+        DistributionSummary.builder("blogapp.request.statements")
+            .description("SQL statements issued per HTTP request")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    QueryStats previous = QueryStatsHolder.start();
+    QueryStats stats;
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      stats = QueryStatsHolder.stop(previous);
+    }
+    if (stats != null) {
+      evaluate(request, stats);
+    }
+  }
+
+  private void evaluate(HttpServletRequest request, QueryStats stats) {
+    statementsPerRequest.record(stats.getStatements());
+
+    boolean overBudget =
+        stats.getStatements() > maxStatements
+            || stats.getEntitiesLoaded() > maxEntities
+            || stats.getCollectionsInitialized() > maxCollections;
+    List<Map.Entry<String, Integer>> repeated = stats.repeatedShapes(repeatedStatementThreshold);
+    if (!overBudget && repeated.isEmpty()) {
+      return;
+    }
+
+    String endpoint = resolveEndpoint(request);
+    if (overBudget) {
+      meterRegistry.counter("blogapp.query.budget.exceeded", "uri", endpoint).increment();
+      log.warn(
+          "Query budget exceeded for {} {}: {} (limits: statements={}, entities={}, collections={})",
+          request.getMethod(),
+          endpoint,
+          stats,
+          maxStatements,
+          maxEntities,
+          maxCollections);
+    }
+    for (Map.Entry<String, Integer> shape : repeated) {
+      meterRegistry.counter("blogapp.query.repeated", "uri", endpoint).increment();
+      log.warn(
+          "Likely N+1 in {} {}: statement executed {} times: {}",
+          request.getMethod(),
+          endpoint,
+          shape.getValue(),
+          shape.getKey());
+    }
+  }
+
+  private String resolveEndpoint(HttpServletRequest request) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return pattern != null ? pattern.toString() : "UNMAPPED";
+  }
+}
@@ -0,0 +1,18 @@
+package com.blogapp.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that credits each prepared statement to the current request.
+ *
+ * <p>Registered through {@code hibernate.session_factory.statement_inspector}; the SQL is returned
+ * unchanged.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+  @Override
+  public String inspect(String sql) {
+    QueryStatsHolder.recordStatement(sql);
+    return sql;
+  }
+}
@@ -0,0 +1,25 @@
+package com.blogapp.monitoring;
+
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/** Admin view of per-statement-shape latency aggregates at {@code /actuator/queryshapes}. */
+@Component
+@Endpoint(id = "queryshapes")
+@ConditionalOnProperty(name = "blogapp.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryShapesEndpoint {
+
+  private final SlowQueryLog slowQueryLog;
+
+  public QueryShapesEndpoint(SlowQueryLog slowQueryLog) {
+    this.slowQueryLog = slowQueryLog;
+  }
+
+  @ReadOperation
+  public List<StatementShapeStats> shapes() {
+    return slowQueryLog.shapes();
+  }
+}
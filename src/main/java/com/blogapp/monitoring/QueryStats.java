@@ -0,0 +1,73 @@
+package com.blogapp.monitoring;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** SQL statements, entity loads and collection initializations recorded for one request. */
+public class QueryStats {
+
+  private int statements;
+  private int entitiesLoaded;
+  private int collectionsInitialized;
+  private final Map<String, Integer> statementsByShape = new HashMap<>();
+
+  void recordStatement(String sql) {
+    statements++;
+    statementsByShape.merge(SqlFingerprint.of(sql), 1, Integer::sum);
+  }
+
+  void recordEntityLoad() {
+    entitiesLoaded++;
+  }
+
+  void recordCollectionInitialization() {
+    collectionsInitialized++;
+  }
+
+  void merge(QueryStats other) {
+    statements += other.statements;
+    entitiesLoaded += other.entitiesLoaded;
+    collectionsInitialized += other.collectionsInitialized;
+    other.statementsByShape.forEach(
+        (shape, count) -> statementsByShape.merge(shape, count, Integer::sum));
+  }
+
+  public int getStatements() {
+    return statements;
+  }
+
+  public int getEntitiesLoaded() {
+    return entitiesLoaded;
+  }
+
+  public int getCollectionsInitialized() {
+    return collectionsInitialized;
+  }
+
+  public Map<String, Integer> getStatementsByShape() {
+    return Map.copyOf(statementsByShape);
+  }
+
+  /**
+   * Statement shapes executed at least {@code threshold} times, most frequent first. A shape that
+   * repeats once per row of an earlier result is the usual signature of an N+1 access pattern.
+   */
+  public List<Map.Entry<String, Integer>> repeatedShapes(int threshold) {
+    return statementsByShape.entrySet().stream()
+        .filter(entry -> entry.getValue() >= threshold)
+        .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+        .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+        .toList();
+  }
+
+  @Override
+  public String toString() {
+    return "statements="
+        + statements
+        + ", entitiesLoaded="
+        + entitiesLoaded
+        + ", collectionsInitialized="
+        + collectionsInitialized;
+  }
+}
@@ -0,0 +1,77 @@
+package com.blogapp.monitoring;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Thread-bound {@link QueryStats} for the work currently in progress.
+ *
+ * <p>Recording methods are no-ops when nothing is being captured, so the Hibernate hooks cost a
+ * thread-local read outside of instrumented requests.
+ */
+public final class QueryStatsHolder {
+
+  private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+  private QueryStatsHolder() {}
+
+  /** Begin capturing on this thread, returning whatever was being captured before. */
+  public static QueryStats start() {
+    QueryStats previous = CURRENT.get();
+    CURRENT.set(new QueryStats());
+    return previous;
+  }
+
+  /**
+   * Stop capturing and return what was recorded. The previous capture is restored and also
+   * credited with the work, so nested captures never hide statements from an outer one.
+   */
+  public static QueryStats stop(QueryStats previous) {
+    QueryStats finished = CURRENT.get();
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+      if (finished != null) {
+        previous.merge(finished);
+      }
+    }
+    return finished;
+  }
+
+  public static QueryStats current() {
+    return CURRENT.get();
+  }
+
+  /** Run an action while capturing its statements, entity loads and collection loads. */
+  public static QueryStats capture(Callable<?> action) throws Exception {
+    QueryStats previous = start();
+    QueryStats captured;
+    try {
+      action.call();
+    } finally {
+      captured = stop(previous);
+    }
+    return captured;
+  }
+
+  static void recordStatement(String sql) {
+    QueryStats stats = CURRENT.get();
+    if (stats != null) {
+      stats.recordStatement(sql);
+    }
+  }
+
+  static void recordEntityLoad() {
+    QueryStats stats = CURRENT.get();
+    if (stats != null) {
+      stats.recordEntityLoad();
+    }
+  }
+
+  static void recordCollectionInitialization() {
+    QueryStats stats = CURRENT.get();
+    if (stats != null) {
+      stats.recordCollectionInitialization();
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.blogapp.monitoring;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.stereotype.Component;
+
+/** Hooks entity loads and lazy collection initializations into {@link QueryStatsHolder}. */
+@Component
+public class QueryStatsListenerRegistrar {
+
+  public QueryStatsListenerRegistrar(EntityManagerFactory entityManagerFactory) {
+    EventListenerRegistry registry =
+        entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+    registry.appendListeners(
+        EventType.POST_LOAD, (PostLoadEventListener) event -> QueryStatsHolder.recordEntityLoad());
+    registry.appendListeners(
+        EventType.INIT_COLLECTION,
+        (InitializeCollectionEventListener)
+            event -> QueryStatsHolder.recordCollectionInitialization());
+  }
+}
@@ -0,0 +1,32 @@
+package com.blogapp.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/** Measures view rendering as the time between {@code postHandle} and {@code afterCompletion}. */
+public class RenderTimingInterceptor implements HandlerInterceptor {
+
+  private static final String RENDER_START = RenderTimingInterceptor.class.getName() + ".start";
+
+  @Override
+  public void postHandle(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Object handler,
+      ModelAndView modelAndView) {
+    if (modelAndView != null && RequestProfiler.isActive()) {
+      request.setAttribute(RENDER_START, System.nanoTime());
+    }
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    Object start = request.getAttribute(RENDER_START);
+    if (start instanceof Long renderStart) {
+      RequestProfiler.stop(RequestPhase.RENDER, renderStart);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.blogapp.monitoring;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers which repository method is executing on the current thread, such as {@code
+ * PostRepository.findAll}, so JDBC-level logging can name the caller of a statement. Registered
+ * only with the slow-query log.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "blogapp.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryMethodTracker {
+
+  private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+  private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+  @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+  public Object track(ProceedingJoinPoint joinPoint) throws Throwable {
+    String previous = CURRENT.get();
+    CURRENT.set(
+        repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(), this::repositoryName)
+            + "."
+            + joinPoint.getSignature().getName());
+    try {
+      return joinPoint.proceed();
+    } finally {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+
+  /** The repository method running on this thread, or {@code null} outside repository calls. */
+  public static String current() {
+    return CURRENT.get();
+  }
+
+  private String repositoryName(Class<?> proxyClass) {
+    for (Class<?> candidate : proxyClass.getInterfaces()) {
+      if (candidate.getPackageName().startsWith("com.blogapp")) {
+        return candidate.getSimpleName();
+      }
+    }
+    return proxyClass.getSimpleName();
+  }
+}
@@ -0,0 +1,34 @@
+package com.blogapp.monitoring;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Attributes repository time not spent waiting for a connection or executing SQL to the hydration
+ * phase: result-set processing and entity materialization.
+ */
+@Aspect
+public class RepositoryProfilingAspect {
+
+  @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+  public Object profile(ProceedingJoinPoint joinPoint) throws Throwable {
+    RequestProfile profile = RequestProfiler.current();
+    if (profile == null) {
+      return joinPoint.proceed();
+    }
+    long jdbcBefore = jdbcNanos(profile);
+    long start = System.nanoTime();
+    try {
+      return joinPoint.proceed();
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      long jdbc = jdbcNanos(profile) - jdbcBefore;
+      profile.add(RequestPhase.HYDRATION, Math.max(0, elapsed - jdbc));
+    }
+  }
+
+  private long jdbcNanos(RequestProfile profile) {
+    return profile.phaseNanos(RequestPhase.SQL) + profile.phaseNanos(RequestPhase.DB_WAIT);
+  }
+}
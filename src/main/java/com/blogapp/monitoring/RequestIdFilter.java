@@ -0,0 +1,50 @@
+package com.blogapp.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Assigns every request an id, reusing a well-formed incoming {@code X-Request-Id}, and exposes it
+ * to log lines through the {@code requestId} MDC key.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "X-Request-Id";
+  public static final String MDC_KEY = "requestId";
+
+  private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    String requestId = request.getHeader(HEADER);
+    if (requestId == null || !VALID_ID.matcher(requestId).matches()) {
+      requestId = UUID.randomUUID().toString();
+    }
+    response.setHeader(HEADER, requestId);
+    MDC.put(MDC_KEY, requestId);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      MDC.remove(MDC_KEY);
+    }
+  }
+
+  /** The id of the request being served on this thread, or {@code null}. */
+  public static String currentRequestId() {
+    return MDC.get(MDC_KEY);
+  }
+}
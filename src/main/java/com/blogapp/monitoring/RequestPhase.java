@@ -0,0 +1,27 @@
+package com.blogapp.monitoring;
+
+/** Phases reported in the {@code Server-Timing} header, in request order. */
+public enum RequestPhase {
+  SECURITY("security", "Spring Security filter chain"),
+  DB_WAIT("db-wait", "Waiting for a pooled connection"),
+  SQL("sql", "SQL execution"),
+  HYDRATION("hydrate", "Result processing and entity hydration"),
+  MAPPING("mapping", "DTO mapping"),
+  RENDER("render", "View rendering");
+
+  private final String metricName;
+  private final String description;
+
+  RequestPhase(String metricName, String description) {
+    this.metricName = metricName;
+    this.description = description;
+  }
+
+  public String getMetricName() {
+    return metricName;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+}
@@ -0,0 +1,143 @@
+package com.blogapp.monitoring;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/** Phase breakdown of a single HTTP request. */
+public class RequestProfile {
+
+  private final String method;
+  private final String path;
+  private final Instant startedAt;
+  private final long startNanos;
+  private final long[] phaseNanos = new long[RequestPhase.values().length];
+  private int statements;
+  private long securityStartNanos = -1;
+  private long dataNanosAtSecurityStart;
+  private boolean securityComplete;
+  private long totalNanos;
+  private int status;
+
+  public RequestProfile(String method, String path) {
+    this.method = method;
+    this.path = path;
+    this.startedAt = Instant.now();
+    this.startNanos = System.nanoTime();
+  }
+
+  void add(RequestPhase phase, long nanos) {
+    phaseNanos[phase.ordinal()] += nanos;
+  }
+
+  /** Note that the Spring Security filter chain has been entered. */
+  void markSecurityStart() {
+    if (securityStartNanos < 0) {
+      securityStartNanos = System.nanoTime();
+      dataNanosAtSecurityStart = dataNanos();
+    }
+  }
+
+  /**
+   * Attribute the time since the security chain was entered to the security phase, once. Data
+   * access inside the chain, such as loading the user, is already reported under its own phases and
+   * is left out.
+   */
+  void markSecurityComplete() {
+    if (securityStartNanos >= 0 && !securityComplete) {
+      securityComplete = true;
+      long nanos = System.nanoTime() - securityStartNanos;
+      add(RequestPhase.SECURITY, nanos - (dataNanos() - dataNanosAtSecurityStart));
+    }
+  }
+
+  private long dataNanos() {
+    return phaseNanos(RequestPhase.DB_WAIT)
+        + phaseNanos(RequestPhase.SQL)
+        + phaseNanos(RequestPhase.HYDRATION);
+  }
+
+  void countStatement() {
+    statements++;
+  }
+
+  long phaseNanos(RequestPhase phase) {
+    return phaseNanos[phase.ordinal()];
+  }
+
+  long elapsedNanos() {
+    return System.nanoTime() - startNanos;
+  }
+
+  void finish(int status) {
+    this.status = status;
+    this.totalNanos = elapsedNanos();
+  }
+
+  public String getMethod() {
+    return method;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public Instant getStartedAt() {
+    return startedAt;
+  }
+
+  public int getStatus() {
+    return status;
+  }
+
+  public int getStatements() {
+    return statements;
+  }
+
+  public double getTotalMillis() {
+    return toMillis(totalNanos);
+  }
+
+  long getTotalNanos() {
+    return totalNanos;
+  }
+
+  /** Phase durations in milliseconds keyed by their Server-Timing metric name. */
+  public Map<String, Double> getPhases() {
+    Map<String, Double> phases = new LinkedHashMap<>();
+    for (RequestPhase phase : RequestPhase.values()) {
+      phases.put(phase.getMetricName(), toMillis(phaseNanos(phase)));
+    }
+    return phases;
+  }
+
+  /**
+   * Render the profile as a {@code Server-Timing} header value. Before {@link #finish} the total is
+   * the time elapsed so far.
+   */
+  public String toServerTiming() {
+    long total = totalNanos > 0 ? totalNanos : elapsedNanos();
+    StringBuilder header = new StringBuilder();
+    for (RequestPhase phase : RequestPhase.values()) {
+      long nanos = phaseNanos(phase);
+      if (nanos == 0) {
+        continue;
+      }
+      header.append(phase.getMetricName()).append(";dur=").append(format(nanos));
+      if (phase == RequestPhase.SQL) {
+        header.append(";desc=\"").append(statements).append(" statements\"");
+      }
+      header.append(", ");
+    }
+    return header.append("total;dur=").append(format(total)).toString();
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / 1_000_000d;
+  }
+
+  private static String format(long nanos) {
+    return String.format(Locale.ROOT, "%.2f", toMillis(nanos));
+  }
+}
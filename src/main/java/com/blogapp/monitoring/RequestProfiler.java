@@ -0,0 +1,78 @@
+package com.blogapp.monitoring;
+
+/**
+ * Thread-bound entry point for recording request phases.
+ *
+ * <p>When profiling is disabled no profile is bound, {@link #start()} returns a sentinel and
+ * {@link #stop} returns immediately, so instrumented code pays a thread-local read.
+ *
+ * <pre>{@code
+ * long start = RequestProfiler.start();
+ * try {
+ *   ...
+ * } finally {
+ *   RequestProfiler.stop(RequestPhase.MAPPING, start);
+ * }
+ * }</pre>
+ */
+public final class RequestProfiler {
+
+  static final long INACTIVE = -1L;
+
+  private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+  private RequestProfiler() {}
+
+  static void bind(RequestProfile profile) {
+    CURRENT.set(profile);
+  }
+
+  static void unbind() {
+    CURRENT.remove();
+  }
+
+  public static RequestProfile current() {
+    return CURRENT.get();
+  }
+
+  public static boolean isActive() {
+    return CURRENT.get() != null;
+  }
+
+  /** Timestamp to pass to {@link #stop}, or a sentinel when no request is being profiled. */
+  public static long start() {
+    return CURRENT.get() != null ? System.nanoTime() : INACTIVE;
+  }
+
+  /** Credit the time since {@code start} to the given phase. */
+  public static void stop(RequestPhase phase, long start) {
+    if (start == INACTIVE) {
+      return;
+    }
+    RequestProfile profile = CURRENT.get();
+    if (profile != null) {
+      profile.add(phase, System.nanoTime() - start);
+    }
+  }
+
+  static void countStatement() {
+    RequestProfile profile = CURRENT.get();
+    if (profile != null) {
+      profile.countStatement();
+    }
+  }
+
+  static void markSecurityStart() {
+    RequestProfile profile = CURRENT.get();
+    if (profile != null) {
+      profile.markSecurityStart();
+    }
+  }
+
+  static void markSecurityComplete() {
+    RequestProfile profile = CURRENT.get();
+    if (profile != null) {
+      profile.markSecurityComplete();
+    }
+  }
+}
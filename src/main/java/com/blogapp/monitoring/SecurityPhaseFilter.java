@@ -0,0 +1,49 @@
+package com.blogapp.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Placed at the start and at the end of the Spring Security chain to bound the security phase of
+ * the current profile. Not a bean, so it is not also registered as a standalone servlet filter.
+ */
+public class SecurityPhaseFilter extends OncePerRequestFilter {
+
+  private final boolean start;
+
+  private SecurityPhaseFilter(boolean start) {
+    this.start = start;
+  }
+
+  /** The filter to add before the first filter of the security chain. */
+  public static SecurityPhaseFilter start() {
+    return new SecurityPhaseFilter(true);
+  }
+
+  /** The filter to add after the authorization filter. */
+  public static SecurityPhaseFilter end() {
+    return new SecurityPhaseFilter(false);
+  }
+
+  @Override
+  protected String getAlreadyFilteredAttributeName() {
+    // Both instances share a class, so each needs its own marker to run once per request.
+    return super.getAlreadyFilteredAttributeName() + (start ? ".start" : ".end");
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    if (start) {
+      RequestProfiler.markSecurityStart();
+    } else {
+      RequestProfiler.markSecurityComplete();
+    }
+    filterChain.doFilter(request, response);
+  }
+}
@@ -0,0 +1,242 @@
+package com.blogapp.monitoring;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source wrapper that times every statement executed through its connections and reports it
+ * to the {@link SlowQueryLog}.
+ *
+ * <p>Connections and statements are JDK proxies. Bind parameters are tracked by class only, and
+ * result sets are wrapped to count rows only when the statement already crossed the threshold, so
+ * fast queries are read straight from the driver.
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+  private final SlowQueryLog slowQueryLog;
+
+  public SlowQueryDataSource(DataSource targetDataSource, SlowQueryLog slowQueryLog) {
+    super(targetDataSource);
+    this.slowQueryLog = slowQueryLog;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return wrap(obtainTargetDataSource().getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return wrap(obtainTargetDataSource().getConnection(username, password));
+  }
+
+  private Connection wrap(Connection connection) {
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new ConnectionHandler(connection, slowQueryLog));
+  }
+
+  private static Object invokeTarget(Object target, Method method, Object[] args)
+      throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+
+  private static Object handleObjectMethod(Object proxy, Method method, Object[] args) {
+    return switch (method.getName()) {
+      case "equals" -> proxy == args[0];
+      case "hashCode" -> System.identityHashCode(proxy);
+      default -> null;
+    };
+  }
+
+  private static boolean isObjectMethod(Method method) {
+    String name = method.getName();
+    return (name.equals("equals") && method.getParameterCount() == 1)
+        || (name.equals("hashCode") && method.getParameterCount() == 0);
+  }
+
+  private static final class ConnectionHandler implements InvocationHandler {
+
+    private final Connection target;
+    private final SlowQueryLog slowQueryLog;
+
+    ConnectionHandler(Connection target, SlowQueryLog slowQueryLog) {
+      this.target = target;
+      this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (isObjectMethod(method)) {
+        return handleObjectMethod(proxy, method, args);
+      }
+      Object result = invokeTarget(target, method, args);
+      String name = method.getName();
+      if (result instanceof Statement statement
+          && (name.startsWith("prepare") || name.equals("createStatement"))) {
+        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+        Class<?> type =
+            statement instanceof CallableStatement
+                ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return Proxy.newProxyInstance(
+            Statement.class.getClassLoader(),
+            new Class<?>[] {type},
+            new StatementHandler(statement, sql, slowQueryLog));
+      }
+      return result;
+    }
+  }
+
+  private static final class StatementHandler implements InvocationHandler {
+
+    private static final Object NULL_BIND = new Object();
+
+    private final Statement target;
+    private final String preparedSql;
+    private final SlowQueryLog slowQueryLog;
+    private Object[] bindTypes = new Object[8];
+    private int bindCount;
+
+    private String pendingSql;
+    private long pendingNanos;
+    private long pendingRows;
+
+    StatementHandler(Statement target, String preparedSql, SlowQueryLog slowQueryLog) {
+      this.target = target;
+      this.preparedSql = preparedSql;
+      this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (isObjectMethod(method)) {
+        return handleObjectMethod(proxy, method, args);
+      }
+      String name = method.getName();
+      if (name.startsWith("execute")) {
+        return execute(method, args);
+      }
+      if (name.startsWith("set")
+          && method.getParameterCount() >= 2
+          && method.getParameterTypes()[0] == int.class) {
+        recordBind((Integer) args[0], name.equals("setNull") ? NULL_BIND : args[1]);
+      } else if (name.equals("clearParameters")) {
+        bindCount = 0;
+      } else if (name.equals("close")) {
+        flushPending();
+      }
+      return invokeTarget(target, method, args);
+    }
+
+    private Object execute(Method method, Object[] args) throws Throwable {
+      flushPending();
+      String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+      String name = method.getName();
+      long start = System.nanoTime();
+      Object result;
+      try {
+        result = invokeTarget(target, method, args);
+      } catch (Throwable e) {
+        slowQueryLog.record(sql, bindTypes, bindCount, -1, System.nanoTime() - start, true);
+        throw e;
+      }
+      long elapsed = System.nanoTime() - start;
+
+      if (result instanceof ResultSet resultSet) {
+        if (!slowQueryLog.isSlow(elapsed)) {
+          slowQueryLog.record(sql, bindTypes, bindCount, -1, elapsed, false);
+          return resultSet;
+        }
+        pendingSql = sql;
+        pendingNanos = elapsed;
+        pendingRows = 0;
+        return Proxy.newProxyInstance(
+            ResultSet.class.getClassLoader(),
+            new Class<?>[] {ResultSet.class},
+            new RowCountingHandler(resultSet, this));
+      }
+      slowQueryLog.record(sql, bindTypes, bindCount, rowCount(name, result), elapsed, false);
+      return result;
+    }
+
+    private void recordBind(int parameterIndex, Object value) {
+      int slot = parameterIndex - 1;
+      if (slot < 0) {
+        return;
+      }
+      if (slot >= bindTypes.length) {
+        bindTypes = Arrays.copyOf(bindTypes, Math.max(slot + 1, bindTypes.length * 2));
+      }
+      bindTypes[slot] = value == null || value == NULL_BIND ? null : value.getClass();
+      bindCount = Math.max(bindCount, parameterIndex);
+    }
+
+    void countRow() {
+      pendingRows++;
+    }
+
+    void flushPending() {
+      if (pendingSql != null) {
+        slowQueryLog.record(pendingSql, bindTypes, bindCount, pendingRows, pendingNanos, false);
+        pendingSql = null;
+      }
+    }
+
+    private static long rowCount(String methodName, Object result) {
+      if (result instanceof int[] counts) {
+        return Arrays.stream(counts).filter(count -> count > 0).asLongStream().sum();
+      }
+      if (result instanceof long[] counts) {
+        return Arrays.stream(counts).filter(count -> count > 0).sum();
+      }
+      if (result instanceof Number count && !methodName.equals("execute")) {
+        return count.longValue();
+      }
+      return -1;
+    }
+  }
+
+  private static final class RowCountingHandler implements InvocationHandler {
+
+    private final ResultSet target;
+    private final StatementHandler statement;
+
+    RowCountingHandler(ResultSet target, StatementHandler statement) {
+      this.target = target;
+      this.statement = statement;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (isObjectMethod(method)) {
+        return handleObjectMethod(proxy, method, args);
+      }
+      Object result = invokeTarget(target, method, args);
+      String name = method.getName();
+      if (name.equals("next") && Boolean.TRUE.equals(result)) {
+        statement.countRow();
+      } else if (name.equals("close")) {
+        statement.flushPending();
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.blogapp.monitoring;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/** Wraps the application's data sources in a {@link SlowQueryDataSource}. */
+@Component
+@ConditionalOnProperty(name = "blogapp.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryDataSourcePostProcessor implements BeanPostProcessor {
+
+  private final ObjectProvider<SlowQueryLog> slowQueryLog;
+
+  public SlowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+    this.slowQueryLog = slowQueryLog;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof DataSource dataSource && !(bean instanceof SlowQueryDataSource)) {
+      return new SlowQueryDataSource(dataSource, slowQueryLog.getObject());
+    }
+    return bean;
+  }
+}
@@ -0,0 +1,11 @@
+package com.blogapp.monitoring;
+
+/** One statement that crossed the slow-query threshold, queued for asynchronous logging. */
+record SlowQueryEntry(
+    String shape,
+    String bindShape,
+    long rows,
+    long nanos,
+    String repositoryMethod,
+    String requestId,
+    boolean failed) {}
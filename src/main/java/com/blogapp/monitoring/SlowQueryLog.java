@@ -0,0 +1,169 @@
+package com.blogapp.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aggregates every JDBC statement by shape and logs those above the latency threshold.
+ *
+ * <p>Statements under the threshold only touch the per-shape counters. Slow entries are handed to
+ * a background writer through a bounded queue; when the queue is full entries are dropped and
+ * counted rather than slowing the request thread down.
+ */
+@Component
+@ConditionalOnProperty(name = "blogapp.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryLog {
+
+  private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+  private final long thresholdNanos;
+  private final double sampleRate;
+  private final int maxShapes;
+  private final BlockingQueue<SlowQueryEntry> queue;
+  private final Map<String, String> shapesBySql = new ConcurrentHashMap<>();
+  private final Map<String, StatementShapeStats> statsByShape = new ConcurrentHashMap<>();
+  private final Counter droppedEntries;
+  private final Counter slowStatements;
+  private final Thread writer;
+
+  public SlowQueryLog(
+      MeterRegistry meterRegistry,
+      @Value("${blogapp.slow-query.threshold:200ms}") Duration threshold,
+      @Value("${blogapp.slow-query.sample-rate:1.0}") double sampleRate,
+      @Value("${blogapp.slow-query.queue-capacity:1024}") int queueCapacity,
+      @Value("${blogapp.slow-query.max-shapes:1000}") int maxShapes) {
+    this.thresholdNanos = threshold.toNanos();
+    this.sampleRate = sampleRate;
+    this.maxShapes = maxShapes;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.droppedEntries =
+        Counter.builder("blogapp.slow-query.dropped")
+            .description("Slow-query log entries dropped because the log queue was full")
+            .register(meterRegistry);
+    this.slowStatements =
+        Counter.builder("blogapp.slow-query.statements")
+            .description("Statements slower than the slow-query threshold")
+            .register(meterRegistry);
+    this.writer = new Thread(this::drain, "slow-query-log");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  /** Whether a statement that took {@code nanos} will be logged, so callers can collect detail. */
+  boolean isSlow(long nanos) {
+    return nanos >= thresholdNanos;
+  }
+
+  /**
+   * Record one execution. {@code bindTypes} holds the classes of the first {@code bindCount}
+   * parameters; it is only read when the statement is slow.
+   */
+  void record(
+      String sql, Object[] bindTypes, int bindCount, long rows, long nanos, boolean failed) {
+    String shape = shapeOf(sql);
+    StatementShapeStats stats = statsByShape.get(shape);
+    if (stats == null && statsByShape.size() < maxShapes) {
+      stats = statsByShape.computeIfAbsent(shape, StatementShapeStats::new);
+    }
+    if (stats != null) {
+      stats.record(nanos, rows);
+    }
+
+    if (!isSlow(nanos)) {
+      return;
+    }
+    slowStatements.increment();
+    if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+      return;
+    }
+    SlowQueryEntry entry =
+        new SlowQueryEntry(
+            shape,
+            bindShape(bindTypes, bindCount),
+            rows,
+            nanos,
+            RepositoryMethodTracker.current(),
+            RequestIdFilter.currentRequestId(),
+            failed);
+    if (!queue.offer(entry)) {
+      droppedEntries.increment();
+    }
+  }
+
+  /** Per-shape aggregates, most total time first. */
+  public List<StatementShapeStats> shapes() {
+    List<StatementShapeStats> shapes = new ArrayList<>(statsByShape.values());
+    shapes.sort(Comparator.comparingDouble(StatementShapeStats::getTotalMillis).reversed());
+    return shapes;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    writer.interrupt();
+  }
+
+  private String shapeOf(String sql) {
+    if (sql == null) {
+      return "";
+    }
+    String shape = shapesBySql.get(sql);
+    if (shape == null) {
+      shape = SqlFingerprint.of(sql);
+      if (shapesBySql.size() < maxShapes * 4) {
+        shapesBySql.put(sql, shape);
+      }
+    }
+    return shape;
+  }
+
+  private static String bindShape(Object[] bindTypes, int bindCount) {
+    if (bindTypes == null || bindCount == 0) {
+      return "[]";
+    }
+    StringBuilder shape = new StringBuilder("[");
+    for (int i = 0; i < bindCount; i++) {
+      if (i > 0) {
+        shape.append(", ");
+      }
+      Object type = bindTypes[i];
+      shape.append(type instanceof Class<?> bindClass ? bindClass.getSimpleName() : "null");
+    }
+    return shape.append(']').toString();
+  }
+
+  private void drain() {
+    while (!Thread.currentThread().isInterrupted()) {
+      SlowQueryEntry entry;
+      try {
+        entry = queue.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      log.warn(
+          "slow query durationMs={} rows={} failed={} repository={} requestId={} binds={} sql=\"{}\"",
+          String.format("%.2f", entry.nanos() / 1_000_000.0),
+          entry.rows(),
+          entry.failed(),
+          entry.repositoryMethod(),
+          entry.requestId(),
+          entry.bindShape(),
+          entry.shape());
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package com.blogapp.monitoring;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the N slowest request profiles seen since startup.
+ *
+ * <p>Requests faster than the current N-th slowest are rejected by a volatile read, so the lock
+ * is only taken by requests that actually enter the buffer.
+ */
+public class SlowRequestBuffer {
+
+  private static final Comparator<RequestProfile> BY_DURATION =
+      Comparator.comparingLong(RequestProfile::getTotalNanos);
+
+  private final int capacity;
+  private final PriorityQueue<RequestProfile> slowest = new PriorityQueue<>(BY_DURATION);
+  private volatile long admissionThresholdNanos;
+
+  public SlowRequestBuffer(int capacity) {
+    this.capacity = capacity;
+  }
+
+  public void offer(RequestProfile profile) {
+    if (profile.getTotalNanos() <= admissionThresholdNanos) {
+      return;
+    }
+    synchronized (slowest) {
+      slowest.offer(profile);
+      if (slowest.size() > capacity) {
+        slowest.poll();
+      }
+      if (slowest.size() == capacity) {
+        admissionThresholdNanos = slowest.peek().getTotalNanos();
+      }
+    }
+  }
+
+  /** Buffered profiles, slowest first. */
+  public List<RequestProfile> snapshot() {
+    List<RequestProfile> profiles;
+    synchronized (slowest) {
+      profiles = new ArrayList<>(slowest);
+    }
+    profiles.sort(BY_DURATION.reversed());
+    return profiles;
+  }
+}
@@ -0,0 +1,21 @@
+package com.blogapp.monitoring;
+
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/** Admin view of the slowest profiled requests at {@code /actuator/slowrequests}. */
+@Endpoint(id = "slowrequests")
+public class SlowRequestsEndpoint {
+
+  private final SlowRequestBuffer slowRequestBuffer;
+
+  public SlowRequestsEndpoint(SlowRequestBuffer slowRequestBuffer) {
+    this.slowRequestBuffer = slowRequestBuffer;
+  }
+
+  @ReadOperation
+  public List<RequestProfile> slowest() {
+    return slowRequestBuffer.snapshot();
+  }
+}
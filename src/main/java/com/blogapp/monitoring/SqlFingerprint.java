@@ -0,0 +1,29 @@
+package com.blogapp.monitoring;
+
+import java.util.regex.Pattern;
+
+/** Reduces SQL statements to a literal-free shape so repeated executions can be grouped. */
+public final class SqlFingerprint {
+
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern IN_LIST =
+      Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private SqlFingerprint() {}
+
+  /**
+   * Normalize a statement: literals become {@code ?}, {@code IN} lists collapse to a single
+   * placeholder and whitespace is squashed.
+   */
+  public static String of(String sql) {
+    if (sql == null) {
+      return "";
+    }
+    String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+    shape = NUMERIC_LITERAL.matcher(shape).replaceAll("?");
+    shape = IN_LIST.matcher(shape).replaceAll("in (?)");
+    return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase();
+  }
+}
@@ -0,0 +1,113 @@
+package com.blogapp.monitoring;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency aggregate for one statement shape.
+ *
+ * <p>Durations land in log-linear buckets (four per power of two), so percentiles are approximate
+ * to within roughly 20% while recording stays lock-free and allocation-free.
+ */
+public class StatementShapeStats {
+
+  private static final int SUB_BUCKET_BITS = 2;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+  private final String shape;
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAdder rows = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+  StatementShapeStats(String shape) {
+    this.shape = shape;
+  }
+
+  void record(long nanos, long rowCount) {
+    long duration = Math.max(1, nanos);
+    count.increment();
+    totalNanos.add(duration);
+    if (rowCount > 0) {
+      rows.add(rowCount);
+    }
+    maxNanos.accumulate(duration);
+    buckets.incrementAndGet(bucketIndex(duration));
+  }
+
+  public String getShape() {
+    return shape;
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getRows() {
+    return rows.sum();
+  }
+
+  public double getTotalMillis() {
+    return totalNanos.sum() / 1_000_000.0;
+  }
+
+  public double getMeanMillis() {
+    long executions = count.sum();
+    return executions == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / executions;
+  }
+
+  public double getP50Millis() {
+    return percentileNanos(0.50) / 1_000_000.0;
+  }
+
+  public double getP99Millis() {
+    return percentileNanos(0.99) / 1_000_000.0;
+  }
+
+  public double getMaxMillis() {
+    return maxNanos.get() / 1_000_000.0;
+  }
+
+  long percentileNanos(double percentile) {
+    long[] snapshot = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = buckets.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(percentile * total);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return Math.min(bucketMidpoint(i), maxNanos.get());
+      }
+    }
+    return maxNanos.get();
+  }
+
+  static int bucketIndex(long nanos) {
+    int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+    if (exponent < SUB_BUCKET_BITS) {
+      return exponent * SUB_BUCKETS;
+    }
+    int subBucket = (int) ((nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+    return exponent * SUB_BUCKETS + subBucket;
+  }
+
+  static long bucketMidpoint(int index) {
+    int exponent = index / SUB_BUCKETS;
+    int subBucket = index % SUB_BUCKETS;
+    if (exponent < SUB_BUCKET_BITS) {
+      return 1L << exponent;
+    }
+    long width = 1L << (exponent - SUB_BUCKET_BITS);
+    return (1L << exponent) + subBucket * width + width / 2;
+  }
+}
@@ -0,0 +1,25 @@
+package com.blogapp.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** JFR event for resolving a comma-separated tag list to tag entities. */
+@Name(TagResolutionEvent.NAME)
+@Label("Tag Resolution")
+@Category({"BlogApp", "Persistence"})
+@StackTrace(false)
+@Threshold("5 ms")
+public class TagResolutionEvent extends Event {
+
+  public static final String NAME = "blogapp.TagResolution";
+
+  @Label("Tag Count")
+  public int tagCount;
+
+  @Label("Created Tags")
+  public int createdTags;
+}
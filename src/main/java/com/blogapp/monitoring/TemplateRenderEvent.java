@@ -0,0 +1,25 @@
+package com.blogapp.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** JFR event for rendering a Thymeleaf view. */
+@Name(TemplateRenderEvent.NAME)
+@Label("Template Render")
+@Category({"BlogApp", "Rendering"})
+@StackTrace(false)
+@Threshold("10 ms")
+public class TemplateRenderEvent extends Event {
+
+  public static final String NAME = "blogapp.TemplateRender";
+
+  @Label("View")
+  public String view;
+
+  @Label("Post Id")
+  public long postId;
+}
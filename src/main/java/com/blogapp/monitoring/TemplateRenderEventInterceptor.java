@@ -0,0 +1,41 @@
+package com.blogapp.monitoring;
+
+import com.blogapp.models.Post;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.EventType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/** Emits a {@link TemplateRenderEvent} spanning view rendering when that event is enabled. */
+public class TemplateRenderEventInterceptor implements HandlerInterceptor {
+
+  private static final String EVENT = TemplateRenderEventInterceptor.class.getName() + ".event";
+  private static final EventType EVENT_TYPE = EventType.getEventType(TemplateRenderEvent.class);
+
+  @Override
+  public void postHandle(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Object handler,
+      ModelAndView modelAndView) {
+    if (modelAndView == null || !EVENT_TYPE.isEnabled()) {
+      return;
+    }
+    TemplateRenderEvent event = new TemplateRenderEvent();
+    event.view = modelAndView.getViewName();
+    if (modelAndView.getModel().get("post") instanceof Post post && post.getId() != null) {
+      event.postId = post.getId();
+    }
+    event.begin();
+    request.setAttribute(EVENT, event);
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    if (request.getAttribute(EVENT) instanceof TemplateRenderEvent event) {
+      event.commit();
+    }
+  }
+}
@@ -3,12 +3,16 @@ package com.blogapp.repositories;
 import com.blogapp.models.Post;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,47 +21,49 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
 
+  /**
+   * Tags and comments are matched with subqueries rather than joins, so a page of posts can be
+   * read in {@code publishedAt} order without grouping every matching post first.
+   */
   @Query(
       value =
-          "select distinct p "
+          "select p "
               + "from Post p "
               + "join p.author a "
-              + "left join p.tags t "
-              + "left join p.comments c "
-              + "where ("
-              + "lower(p.title) like lower(concat('%', :search, '%')) "
-              + "or lower(p.content) like lower(concat('%', :search, '%')) "
+              + "where (:search = '' "
+              + "or lower(p.title) like lower(concat('%', :search, '%')) "
+              + "or function('post_body_matches', p.contentSearch, p.legacyContent, :search) = true "
               + "or lower(p.excerpt) like lower(concat('%', :search, '%')) "
               + "or lower(a.name) like lower(concat('%', :search, '%')) "
-              + "or lower(t.name) like lower(concat('%', :search, '%')) "
-              + "or lower(c.commentContent) like lower(concat('%', :search, '%'))"
+              + "or exists (select 1 from p.tags t "
+              + "where lower(t.name) like lower(concat('%', :search, '%'))) "
+              + "or exists (select 1 from Comment c where c.post = p "
+              + "and lower(c.commentContent) like lower(concat('%', :search, '%')))"
               + ") "
               + "and (:authorNames is null or a.name in :authorNames) "
-              + "and (:tagIds is null or t.id in :tagIds) "
+              + "and (:tagIds is null or p.id in (select tp.id from Post tp join tp.tags t "
+              + "where t.id in :tagIds group by tp.id having count(t) = :tagCount)) "
               + "and (cast(:fromDate as timestamp) is null or p.publishedAt >= :fromDate) "
-              + "and (cast(:toDate as timestamp) is null or p.publishedAt <= :toDate) "
-              + "group by p.id "
-              + "having (:tagIds is null or count(distinct t.id) = :tagCount)",
+              + "and (cast(:toDate as timestamp) is null or p.publishedAt <= :toDate)",
       countQuery =
-          "select count(distinct p) "
+          "select count(*) "
               + "from Post p "
               + "join p.author a "
-              + "left join p.tags t "
-              + "left join p.comments c "
-              + "where ("
-              + "lower(p.title) like lower(concat('%', :search, '%')) "
-              + "or lower(p.content) like lower(concat('%', :search, '%')) "
+              + "where (:search = '' "
+              + "or lower(p.title) like lower(concat('%', :search, '%')) "
+              + "or function('post_body_matches', p.contentSearch, p.legacyContent, :search) = true "
               + "or lower(p.excerpt) like lower(concat('%', :search, '%')) "
               + "or lower(a.name) like lower(concat('%', :search, '%')) "
-              + "or lower(t.name) like lower(concat('%', :search, '%')) "
-              + "or lower(c.commentContent) like lower(concat('%', :search, '%'))"
+              + "or exists (select 1 from p.tags t "
+              + "where lower(t.name) like lower(concat('%', :search, '%'))) "
+              + "or exists (select 1 from Comment c where c.post = p "
+              + "and lower(c.commentContent) like lower(concat('%', :search, '%')))"
               + ") "
               + "and (:authorNames is null or a.name in :authorNames) "
-              + "and (:tagIds is null or t.id in :tagIds) "
+              + "and (:tagIds is null or p.id in (select tp.id from Post tp join tp.tags t "
+              + "where t.id in :tagIds group by tp.id having count(t) = :tagCount)) "
               + "and (cast(:fromDate as timestamp) is null or p.publishedAt >= :fromDate) "
-              + "and (cast(:toDate as timestamp) is null or p.publishedAt <= :toDate) "
-              + "group by p.id "
-              + "having (:tagIds is null or count(distinct t.id) = :tagCount)")
+              + "and (cast(:toDate as timestamp) is null or p.publishedAt <= :toDate)")
   Page<Post> findAll(
       @Param("authorNames") List<String> authorNames,
       @Param("tagIds") List<Long> tagIds,
@@ -71,4 +77,36 @@ public interface PostRepository extends JpaRepository<Post, Long> {
   Set<String> findDistinctAuthors();
 
   Optional<Post> getPostById(Long id);
+
+  /** Posts by id with their author and tags, for assembling several responses at once. */
+  @EntityGraph(attributePaths = {"author", "tags"})
+  @Query("select p from Post p where p.id in :ids")
+  List<Post> findAllWithAuthorAndTagsByIdIn(@Param("ids") Collection<Long> ids);
+
+  /** Initializes the comments of the posts already loaded in this persistence context. */
+  @Query("select p from Post p left join fetch p.comments c where p.id in :ids order by c.id")
+  List<Post> fetchCommentsByIdIn(@Param("ids") Collection<Long> ids);
+
+  /**
+   * Bodies by post id, which would otherwise load one post at a time on first access: the id, the
+   * encoded body and, for posts not migrated yet, the plain-text body.
+   */
+  @Query("select p.id, p.content, p.legacyContent from Post p where p.id in :ids")
+  List<Object[]> findContentsByIdIn(@Param("ids") Collection<Long> ids);
+
+  /** The counter columns by post id: the id, comment count, last comment time and view count. */
+  @Query(
+      "select p.id, p.commentCount, p.lastCommentAt, p.viewCount from Post p where p.id in :ids")
+  List<Object[]> findCountersByIdIn(@Param("ids") Collection<Long> ids);
+
+  /** Bodies of the given posts in one query, keyed by post id. */
+  default Map<Long, String> getContents(Collection<Long> ids) {
+    Map<Long, String> contents = new HashMap<>();
+    if (!ids.isEmpty()) {
+      for (Object[] row : findContentsByIdIn(ids)) {
+        contents.put((Long) row[0], (String) (row[1] != null ? row[1] : row[2]));
+      }
+    }
+    return contents;
+  }
 }
@@ -0,0 +1,125 @@
+package com.blogapp.security;
+
+import com.blogapp.exceptions.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Password encoder that runs BCrypt on a dedicated, CPU-sized pool with a bounded queue.
+ *
+ * <p>When the queue is full, or a hash does not finish within the configured timeout, the call
+ * fails fast with {@link PasswordHashingRejectedException} instead of tying up request threads.
+ */
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+  private final BCryptPasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+  private final Duration timeout;
+  private final Counter saturatedRejections;
+  private final Counter timeoutRejections;
+
+  public BoundedPasswordEncoder(
+      BCryptPasswordEncoder delegate,
+      MeterRegistry meterRegistry,
+      @Value("${blogapp.security.hashing.threads:0}") int threads,
+      @Value("${blogapp.security.hashing.queue-capacity:32}") int queueCapacity,
+      @Value("${blogapp.security.hashing.timeout:5s}") Duration timeout) {
+    this.delegate = delegate;
+    this.timeout = timeout;
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadCounter = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+              Thread thread = new Thread(runnable, "password-hash-" + threadCounter.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    Gauge.builder("blogapp.password.hash.queue.depth", executor, e -> e.getQueue().size())
+        .register(meterRegistry);
+    Gauge.builder("blogapp.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+        .register(meterRegistry);
+    this.saturatedRejections =
+        Counter.builder("blogapp.password.hash.rejected")
+            .tag("reason", "saturated")
+            .register(meterRegistry);
+    this.timeoutRejections =
+        Counter.builder("blogapp.password.hash.rejected")
+            .tag("reason", "timeout")
+            .register(meterRegistry);
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return submit(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return submit(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private <T> T submit(Callable<T> task) {
+    Future<T> future;
+    try {
+      future = executor.submit(task);
+    } catch (RejectedExecutionException e) {
+      saturatedRejections.increment();
+      throw new PasswordHashingRejectedException(
+          "Authentication is temporarily overloaded. Please try again shortly.", e);
+    }
+
+    try {
+      return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      timeoutRejections.increment();
+      throw new PasswordHashingRejectedException(
+          "Authentication is temporarily overloaded. Please try again shortly.", e);
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new PasswordHashingRejectedException("Password hashing was interrupted.", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+}
@@ -1,43 +1,77 @@
 package com.blogapp.security;
 
+import com.blogapp.models.Role;
 import com.blogapp.models.User;
 import java.util.Collection;
 import java.util.List;
 
 import lombok.Getter;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+/**
+ * Compact authenticated principal.
+ *
+ * <p>Only the user id, role and display fields are kept so the principal serializes cheaply into
+ * the shared session store. The password hash is transient and erased after authentication.
+ */
 @Getter
-public class CustomUserDetails implements UserDetails {
+public class CustomUserDetails implements UserDetails, CredentialsContainer {
 
-  private final User user;
+  private static final long serialVersionUID = 1L;
+
+  private final Long userId;
+  private final String name;
+  private final String email;
+  private final Role userRole;
+  private transient String password;
 
   public CustomUserDetails(User user) {
-    this.user = user;
+    this.userId = user.getId();
+    this.name = user.getName();
+    this.email = user.getEmail();
+    this.userRole = user.getUserRole();
+    this.password = user.getPassword();
   }
 
-  public String getName() {
-    return user.getName();
+  /**
+   * Rebuild a detached user reference from the principal.
+   *
+   * <p>The result carries the id, name, email and role only; it is suitable for ownership checks
+   * and as an association target, not for password operations.
+   */
+  public User getUser() {
+    User user = new User();
+    user.setId(userId);
+    user.setName(name);
+    user.setEmail(email);
+    user.setUserRole(userRole);
+    return user;
   }
 
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
-    if (user.getUserRole() == null) {
+    if (userRole == null) {
       return List.of();
     }
-    return List.of(new SimpleGrantedAuthority("ROLE_" + user.getUserRole().name()));
+    return List.of(new SimpleGrantedAuthority("ROLE_" + userRole.name()));
   }
 
   @Override
   public String getPassword() {
-    return user.getPassword();
+    return password;
   }
 
   @Override
   public String getUsername() {
-    return user.getEmail();
+    return email;
+  }
+
+  @Override
+  public void eraseCredentials() {
+    password = null;
   }
 
   @Override
@@ -0,0 +1,139 @@
+package com.blogapp.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+
+/**
+ * Session repository decorator that only persists last-access updates once they are older than a
+ * configured interval.
+ *
+ * <p>The servlet filter touches the session on every request, which would otherwise turn each
+ * read into a session-row update. Attribute writes still go through the delegate unchanged, so a
+ * request that does not modify the session performs no write at all.
+ */
+public class LazyTouchSessionRepository
+    implements FindByIndexNameSessionRepository<LazyTouchSessionRepository.LazyTouchSession> {
+
+  private final FindByIndexNameSessionRepository<Session> delegate;
+  private final Duration touchInterval;
+
+  @SuppressWarnings("unchecked")
+  public LazyTouchSessionRepository(
+      FindByIndexNameSessionRepository<? extends Session> delegate, Duration touchInterval) {
+    // Sessions handed back to the delegate are always ones it created, so the cast is safe.
+    this.delegate = (FindByIndexNameSessionRepository<Session>) delegate;
+    this.touchInterval = touchInterval;
+  }
+
+  @Override
+  public LazyTouchSession createSession() {
+    return new LazyTouchSession(delegate.createSession(), touchInterval);
+  }
+
+  @Override
+  public void save(LazyTouchSession session) {
+    delegate.save(session.delegate);
+  }
+
+  @Override
+  public LazyTouchSession findById(String id) {
+    Session session = delegate.findById(id);
+    return session == null ? null : new LazyTouchSession(session, touchInterval);
+  }
+
+  @Override
+  public void deleteById(String id) {
+    delegate.deleteById(id);
+  }
+
+  @Override
+  public Map<String, LazyTouchSession> findByIndexNameAndIndexValue(
+      String indexName, String indexValue) {
+    Map<String, LazyTouchSession> sessions = new LinkedHashMap<>();
+    delegate
+        .findByIndexNameAndIndexValue(indexName, indexValue)
+        .forEach((id, session) -> sessions.put(id, new LazyTouchSession(session, touchInterval)));
+    return sessions;
+  }
+
+  /** Session view that drops last-access updates falling inside the touch interval. */
+  public static final class LazyTouchSession implements Session {
+
+    private final Session delegate;
+    private final Duration touchInterval;
+
+    LazyTouchSession(Session delegate, Duration touchInterval) {
+      this.delegate = delegate;
+      this.touchInterval = touchInterval;
+    }
+
+    @Override
+    public String getId() {
+      return delegate.getId();
+    }
+
+    @Override
+    public String changeSessionId() {
+      return delegate.changeSessionId();
+    }
+
+    @Override
+    public <T> T getAttribute(String attributeName) {
+      return delegate.getAttribute(attributeName);
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+      return delegate.getAttributeNames();
+    }
+
+    @Override
+    public void setAttribute(String attributeName, Object attributeValue) {
+      delegate.setAttribute(attributeName, attributeValue);
+    }
+
+    @Override
+    public void removeAttribute(String attributeName) {
+      delegate.removeAttribute(attributeName);
+    }
+
+    @Override
+    public Instant getCreationTime() {
+      return delegate.getCreationTime();
+    }
+
+    @Override
+    public void setLastAccessedTime(Instant lastAccessedTime) {
+      Instant previous = delegate.getLastAccessedTime();
+      if (previous == null
+          || Duration.between(previous, lastAccessedTime).compareTo(touchInterval) >= 0) {
+        delegate.setLastAccessedTime(lastAccessedTime);
+      }
+    }
+
+    @Override
+    public Instant getLastAccessedTime() {
+      return delegate.getLastAccessedTime();
+    }
+
+    @Override
+    public void setMaxInactiveInterval(Duration interval) {
+      delegate.setMaxInactiveInterval(interval);
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() {
+      return delegate.getMaxInactiveInterval();
+    }
+
+    @Override
+    public boolean isExpired() {
+      return delegate.isExpired();
+    }
+  }
+}
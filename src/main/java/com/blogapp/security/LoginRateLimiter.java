@@ -0,0 +1,86 @@
+package com.blogapp.security;
+
+import com.blogapp.exceptions.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-IP and per-account token buckets guarding the credential endpoints.
+ *
+ * <p>Checks run before any password hashing so a credential-stuffing burst is rejected cheaply.
+ */
+@Component
+public class LoginRateLimiter {
+
+  private final Cache<String, TokenBucket> ipBuckets;
+  private final Cache<String, TokenBucket> accountBuckets;
+  private final long ipCapacity;
+  private final long ipRefillPerMinute;
+  private final long accountCapacity;
+  private final long accountRefillPerMinute;
+  private final Counter ipRejections;
+  private final Counter accountRejections;
+
+  public LoginRateLimiter(
+      MeterRegistry meterRegistry,
+      @Value("${blogapp.security.login-limit.ip.capacity:20}") long ipCapacity,
+      @Value("${blogapp.security.login-limit.ip.refill-per-minute:20}") long ipRefillPerMinute,
+      @Value("${blogapp.security.login-limit.account.capacity:5}") long accountCapacity,
+      @Value("${blogapp.security.login-limit.account.refill-per-minute:5}")
+          long accountRefillPerMinute,
+      @Value("${blogapp.security.login-limit.maximum-tracked-keys:100000}") long maximumKeys) {
+    this.ipCapacity = ipCapacity;
+    this.ipRefillPerMinute = ipRefillPerMinute;
+    this.accountCapacity = accountCapacity;
+    this.accountRefillPerMinute = accountRefillPerMinute;
+    this.ipBuckets = newBucketCache(maximumKeys);
+    this.accountBuckets = newBucketCache(maximumKeys);
+    this.ipRejections =
+        Counter.builder("blogapp.login.throttled").tag("scope", "ip").register(meterRegistry);
+    this.accountRejections =
+        Counter.builder("blogapp.login.throttled").tag("scope", "account").register(meterRegistry);
+  }
+
+  /** Consume a token for the client address or throw when its bucket is empty. */
+  public void checkIp(String ip) {
+    if (ip == null) {
+      return;
+    }
+    TokenBucket bucket = ipBuckets.get(ip, k -> new TokenBucket(ipCapacity, ipRefillPerMinute));
+    if (!bucket.tryConsume()) {
+      ipRejections.increment();
+      throw new TooManyRequestsException(
+          "Too many attempts from this address. Please try again later.",
+          bucket.secondsUntilNextToken());
+    }
+  }
+
+  /** Consume a token for the account email or throw when its bucket is empty. */
+  public void checkAccount(String email) {
+    String normalizedEmail = UserCache.normalizeEmail(email);
+    if (normalizedEmail == null || normalizedEmail.isEmpty()) {
+      return;
+    }
+    TokenBucket bucket =
+        accountBuckets.get(
+            normalizedEmail, k -> new TokenBucket(accountCapacity, accountRefillPerMinute));
+    if (!bucket.tryConsume()) {
+      accountRejections.increment();
+      throw new TooManyRequestsException(
+          "Too many attempts for this account. Please try again later.",
+          bucket.secondsUntilNextToken());
+    }
+  }
+
+  private static Cache<String, TokenBucket> newBucketCache(long maximumKeys) {
+    return Caffeine.newBuilder()
+        .maximumSize(maximumKeys)
+        .expireAfterAccess(Duration.ofMinutes(10))
+        .build();
+  }
+}
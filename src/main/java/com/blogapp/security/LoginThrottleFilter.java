@@ -0,0 +1,87 @@
+package com.blogapp.security;
+
+import com.blogapp.exceptions.PasswordHashingRejectedException;
+import com.blogapp.exceptions.TooManyRequestsException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Admission control for the credential endpoints, running ahead of Spring Security.
+ *
+ * <p>Applies the per-IP bucket to every credential POST and the per-account bucket to form
+ * logins, and turns a saturated hashing pool into a fast {@code 503}.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+  private static final String FORM_LOGIN_PATH = "/loginabc";
+  private static final Set<String> CREDENTIAL_PATHS =
+      Set.of(FORM_LOGIN_PATH, "/register", "/api/auth/login", "/api/auth/register");
+
+  private final LoginRateLimiter loginRateLimiter;
+
+  public LoginThrottleFilter(LoginRateLimiter loginRateLimiter) {
+    this.loginRateLimiter = loginRateLimiter;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !"POST".equals(request.getMethod())
+        || !CREDENTIAL_PATHS.contains(request.getServletPath());
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    try {
+      loginRateLimiter.checkIp(request.getRemoteAddr());
+      if (FORM_LOGIN_PATH.equals(request.getServletPath())) {
+        loginRateLimiter.checkAccount(request.getParameter("username"));
+      }
+    } catch (TooManyRequestsException e) {
+      reject(response, HttpStatus.TOO_MANY_REQUESTS, e.getRetryAfterSeconds(), e.getMessage());
+      return;
+    }
+
+    try {
+      filterChain.doFilter(request, response);
+    } catch (ServletException | RuntimeException e) {
+      PasswordHashingRejectedException rejected = findHashingRejection(e);
+      if (rejected == null || response.isCommitted()) {
+        throw e;
+      }
+      response.resetBuffer();
+      reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, rejected.getMessage());
+    }
+  }
+
+  private PasswordHashingRejectedException findHashingRejection(Throwable throwable) {
+    for (Throwable current = throwable; current != null; current = current.getCause()) {
+      if (current instanceof PasswordHashingRejectedException rejected) {
+        return rejected;
+      }
+    }
+    return null;
+  }
+
+  private void reject(
+      HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+      throws IOException {
+    response.setStatus(status.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfterSeconds)));
+    response.setContentType("text/plain;charset=UTF-8");
+    response.getWriter().write(message);
+  }
+}
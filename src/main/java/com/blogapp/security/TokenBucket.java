@@ -0,0 +1,42 @@
+package com.blogapp.security;
+
+/** Minimal token bucket refilled continuously at a fixed rate. */
+public class TokenBucket {
+
+  private final long capacity;
+  private final double tokensPerNano;
+  private double tokens;
+  private long lastRefillNanos;
+
+  public TokenBucket(long capacity, long refillPerMinute) {
+    this.capacity = capacity;
+    this.tokensPerNano = refillPerMinute / 60_000_000_000d;
+    this.tokens = capacity;
+    this.lastRefillNanos = System.nanoTime();
+  }
+
+  /** Take one token if available. */
+  public synchronized boolean tryConsume() {
+    refill();
+    if (tokens >= 1) {
+      tokens -= 1;
+      return true;
+    }
+    return false;
+  }
+
+  /** Seconds until the next token becomes available. */
+  public synchronized long secondsUntilNextToken() {
+    refill();
+    if (tokens >= 1 || tokensPerNano <= 0) {
+      return 0;
+    }
+    return (long) Math.ceil((1 - tokens) / tokensPerNano / 1_000_000_000d);
+  }
+
+  private void refill() {
+    long now = System.nanoTime();
+    tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+    lastRefillNanos = now;
+  }
+}
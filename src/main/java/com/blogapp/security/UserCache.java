@@ -0,0 +1,73 @@
+package com.blogapp.security;
+
+import com.blogapp.models.User;
+import com.blogapp.repositories.UserRepository;
+import com.blogapp.services.CacheInvalidationBus;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, time-limited cache of users keyed by normalized email.
+ *
+ * <p>Concurrent misses for the same email share a single repository lookup, so a burst of logins
+ * for one account issues one query. Unknown emails are not cached. User writes on any node evict
+ * the entry through the {@link CacheInvalidationBus}.
+ */
+@Component
+public class UserCache {
+
+  private final LoadingCache<String, User> usersByEmail;
+
+  public UserCache(
+      UserRepository userRepository,
+      MeterRegistry meterRegistry,
+      CacheInvalidationBus invalidationBus,
+      @Value("${blogapp.security.user-cache.maximum-size:10000}") long maximumSize,
+      @Value("${blogapp.security.user-cache.ttl:10m}") Duration ttl) {
+    this.usersByEmail =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build(email -> userRepository.findByEmail(email).orElse(null));
+    CaffeineCacheMetrics.monitor(meterRegistry, usersByEmail, "users");
+    invalidationBus.subscribe(CacheInvalidationBus.USER, this::invalidateById, this::invalidateAll);
+  }
+
+  /** Normalize an email the same way registration stores it. */
+  public static String normalizeEmail(String email) {
+    return email == null ? null : email.trim().toLowerCase();
+  }
+
+  /** Look up a user by email, loading through the repository on a miss. */
+  public Optional<User> findByEmail(String email) {
+    String normalizedEmail = normalizeEmail(email);
+    if (normalizedEmail == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(usersByEmail.get(normalizedEmail));
+  }
+
+  /** Drop the cached entry for the given email so the next lookup reads the database. */
+  public void invalidate(String email) {
+    String normalizedEmail = normalizeEmail(email);
+    if (normalizedEmail != null) {
+      usersByEmail.invalidate(normalizedEmail);
+    }
+  }
+
+  /** Drop the cached entry of the user with the given id; messages carry ids, not emails. */
+  public void invalidateById(long userId) {
+    usersByEmail.asMap().values().removeIf(user -> user.getId() != null && user.getId() == userId);
+  }
+
+  public void invalidateAll() {
+    usersByEmail.invalidateAll();
+  }
+}
@@ -0,0 +1,298 @@
+package com.blogapp.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts in-process cache entries on every node after a write, over Postgres {@code
+ * LISTEN}/{@code NOTIFY}.
+ *
+ * <p>Write paths call {@link #publish} inside their transaction. Local subscribers are evicted
+ * after commit, and the {@code pg_notify} issued on the same connection is only delivered to the
+ * other nodes if that transaction commits; Postgres also folds identical notifications from one
+ * transaction into one. Each node listens on its own connection outside the pool, collects what
+ * arrives within {@code coalesce-window} and evicts each distinct key once.
+ *
+ * <p>{@link #publishAll} packs many ids of one entity into each notification, up to the payload
+ * limit, for writers that change posts in bulk.
+ *
+ * <p>Notifications sent while the listener is disconnected are lost, so every subscriber is
+ * flushed whenever the listener (re)connects, and also when a burst exceeds {@code max-batch}
+ * keys.
+ */
+@Component
+public class CacheInvalidationBus {
+
+  /** A write to the post row, its tags or its author link. */
+  public static final String POST = "post";
+  /**
+   * A change to what a post's API response shows beyond the post row, such as its comments or
+   * related posts, which caches built from the row alone can ignore.
+   */
+  public static final String POST_RESPONSE = "post-response";
+  public static final String TAG = "tag";
+  public static final String USER = "user";
+
+  private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+  private static final long MAX_RECONNECT_DELAY_MILLIS = 30_000;
+  private static final long IDLE_CHECK_MILLIS = 30_000;
+  /** Postgres rejects payloads of 8000 bytes or more. */
+  private static final int MAX_PAYLOAD = 7_900;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final DataSourceProperties dataSourceProperties;
+  private final boolean enabled;
+  private final String channel;
+  private final long coalesceWindowMillis;
+  private final int maxBatch;
+  private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+  private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+  private final Counter received;
+  private final Counter flushes;
+  private final Timer lag;
+  private final Thread listener;
+
+  private volatile Connection connection;
+
+  public CacheInvalidationBus(
+      JdbcTemplate jdbcTemplate,
+      DataSourceProperties dataSourceProperties,
+      MeterRegistry meterRegistry,
+      @Value("${blogapp.cache-invalidation.enabled:true}") boolean enabled,
+      @Value("${blogapp.cache-invalidation.channel:blogapp_cache_invalidation}") String channel,
+      @Value("${blogapp.cache-invalidation.coalesce-window:50ms}") Duration coalesceWindow,
+      @Value("${blogapp.cache-invalidation.max-batch:1000}") int maxBatch) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.dataSourceProperties = dataSourceProperties;
+    this.enabled = enabled;
+    this.channel = channel;
+    this.coalesceWindowMillis = coalesceWindow.toMillis();
+    this.maxBatch = maxBatch;
+    this.received =
+        Counter.builder("blogapp.cache-invalidation.received")
+            .description("Invalidation notifications received from other nodes")
+            .register(meterRegistry);
+    this.flushes =
+        Counter.builder("blogapp.cache-invalidation.flushes")
+            .description("Full cache flushes after a reconnect or an oversized burst")
+            .register(meterRegistry);
+    this.lag =
+        Timer.builder("blogapp.cache-invalidation.lag")
+            .description("Time from publishing an invalidation to its eviction on another node")
+            .register(meterRegistry);
+    this.listener = new Thread(this::listen, "cache-invalidation-listener");
+    this.listener.setDaemon(true);
+    if (enabled) {
+      this.listener.start();
+    }
+  }
+
+  /**
+   * Register a cache for invalidations of {@code entity}. {@code evict} is called with the id of
+   * each changed entity, {@code evictAll} when notifications may have been missed.
+   */
+  public void subscribe(String entity, LongConsumer evict, Runnable evictAll) {
+    subscribers
+        .computeIfAbsent(entity, key -> new CopyOnWriteArrayList<>())
+        .add(new Subscriber(evict, evictAll));
+  }
+
+  /** Announce that {@code entity} {@code id} changed, once the current transaction commits. */
+  public void publish(String entity, long id) {
+    publishAll(entity, List.of(id));
+  }
+
+  /** Announce that each of {@code ids} changed, in as few notifications as their ids fit in. */
+  public void publishAll(String entity, Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    List<Long> changed = List.copyOf(ids);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              changed.forEach(id -> evict(entity, id));
+            }
+          });
+    } else {
+      changed.forEach(id -> evict(entity, id));
+    }
+    if (enabled) {
+      String suffix = ":" + System.currentTimeMillis() + ':' + nodeId;
+      StringBuilder idList = new StringBuilder();
+      for (long id : changed) {
+        // Leaves room for a separator and the longest id.
+        int length = entity.length() + 1 + idList.length() + suffix.length();
+        if (!idList.isEmpty() && length + 21 > MAX_PAYLOAD) {
+          notify(entity + ':' + idList + suffix);
+          idList.setLength(0);
+        }
+        idList.append(idList.isEmpty() ? "" : ",").append(id);
+      }
+      notify(entity + ':' + idList + suffix);
+    }
+  }
+
+  private void notify(String payload) {
+    jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {}, channel, payload);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    listener.interrupt();
+    closeQuietly();
+  }
+
+  private void listen() {
+    long reconnectDelay = 1_000;
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        connect();
+        reconnectDelay = 1_000;
+        flushAll();
+        PGConnection notifications = connection.unwrap(PGConnection.class);
+        long lastActivity = System.currentTimeMillis();
+        while (!Thread.currentThread().isInterrupted()) {
+          PGNotification[] batch = notifications.getNotifications(1_000);
+          if (batch != null && batch.length > 0) {
+            dispatch(batch, notifications);
+            lastActivity = System.currentTimeMillis();
+          } else if (System.currentTimeMillis() - lastActivity > IDLE_CHECK_MILLIS) {
+            // A silently dropped connection delivers nothing rather than failing.
+            if (!connection.isValid(5)) {
+              throw new SQLException("Cache invalidation connection is no longer valid");
+            }
+            lastActivity = System.currentTimeMillis();
+          }
+        }
+      } catch (SQLException e) {
+        if (Thread.currentThread().isInterrupted()) {
+          break;
+        }
+        log.warn("Cache invalidation listener lost its connection, retrying", e);
+        closeQuietly();
+        try {
+          Thread.sleep(reconnectDelay);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+        }
+        reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MILLIS);
+      }
+    }
+    closeQuietly();
+  }
+
+  private void connect() throws SQLException {
+    connection =
+        DriverManager.getConnection(
+            dataSourceProperties.determineUrl(),
+            dataSourceProperties.determineUsername(),
+            dataSourceProperties.determinePassword());
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("LISTEN \"" + channel.replace("\"", "\"\"") + "\"");
+    }
+  }
+
+  private void dispatch(PGNotification[] first, PGConnection notifications) throws SQLException {
+    Map<String, Set<Long>> idsByEntity = new HashMap<>();
+    int keys = collect(first, idsByEntity);
+    long deadline = System.currentTimeMillis() + coalesceWindowMillis;
+    for (long remaining = coalesceWindowMillis;
+        remaining > 0 && keys <= maxBatch;
+        remaining = deadline - System.currentTimeMillis()) {
+      PGNotification[] more = notifications.getNotifications((int) remaining);
+      if (more != null) {
+        keys += collect(more, idsByEntity);
+      }
+    }
+    if (keys > maxBatch) {
+      flushAll();
+      return;
+    }
+    idsByEntity.forEach((entity, ids) -> ids.forEach(id -> evict(entity, id)));
+  }
+
+  private int collect(PGNotification[] batch, Map<String, Set<Long>> idsByEntity) {
+    int added = 0;
+    long now = System.currentTimeMillis();
+    for (PGNotification notification : batch) {
+      String[] parts = notification.getParameter().split(":");
+      if (parts.length != 4 || parts[3].equals(nodeId)) {
+        continue;
+      }
+      List<Long> ids = new ArrayList<>();
+      try {
+        for (String id : parts[1].split(",")) {
+          ids.add(Long.parseLong(id));
+        }
+        lag.record(Math.max(0, now - Long.parseLong(parts[2])), TimeUnit.MILLISECONDS);
+      } catch (NumberFormatException e) {
+        continue;
+      }
+      received.increment();
+      Set<Long> entityIds = idsByEntity.computeIfAbsent(parts[0], key -> new HashSet<>());
+      for (long id : ids) {
+        if (entityIds.add(id)) {
+          added++;
+        }
+      }
+    }
+    return added;
+  }
+
+  private void evict(String entity, long id) {
+    for (Subscriber subscriber : subscribers.getOrDefault(entity, List.of())) {
+      subscriber.evict().accept(id);
+    }
+  }
+
+  private void flushAll() {
+    flushes.increment();
+    subscribers.values().forEach(list -> list.forEach(subscriber -> subscriber.evictAll().run()));
+  }
+
+  private void closeQuietly() {
+    Connection current = connection;
+    connection = null;
+    if (current != null) {
+      try {
+        current.close();
+      } catch (SQLException e) {
+        log.debug("Closing the cache invalidation connection failed", e);
+      }
+    }
+  }
+
+  private record Subscriber(LongConsumer evict, Runnable evictAll) {}
+}
@@ -4,20 +4,39 @@ import com.blogapp.exceptions.NoPostException;
 import com.blogapp.models.Comment;
 import com.blogapp.models.Post;
 import com.blogapp.models.User;
+import com.blogapp.monitoring.CommentSaveEvent;
 import com.blogapp.repositories.CommentRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
+import java.time.Instant;
+import java.util.Map;
 import java.util.Set;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 @Service
+@Timed("blogapp.service")
 public class CommentService {
   private final CommentRepository commentRepository;
   private final PostService postService; // use service to fetch Post
+  private final CounterService counterService;
+  private final CacheInvalidationBus invalidationBus;
+  private final DomainEventOutbox outbox;
+  private final MeterRegistry meterRegistry;
 
-  public CommentService(CommentRepository commentRepository, @Lazy PostService postService) {
+  public CommentService(
+      CommentRepository commentRepository,
+      PostService postService,
+      CounterService counterService,
+      CacheInvalidationBus invalidationBus,
+      DomainEventOutbox outbox,
+      MeterRegistry meterRegistry) {
     this.commentRepository = commentRepository;
     this.postService = postService;
+    this.counterService = counterService;
+    this.invalidationBus = invalidationBus;
+    this.outbox = outbox;
+    this.meterRegistry = meterRegistry;
   }
 
   public Comment getCommentById(Long id) {
@@ -32,7 +51,10 @@ public class CommentService {
     return commentRepository.findAllByPostId(postId);
   }
 
+  @Transactional
   public Comment saveComment(Comment comment, Long postId, User user) {
+    CommentSaveEvent event = new CommentSaveEvent();
+    event.begin();
     Post post =
         postService
             .getPost(postId)
@@ -42,7 +64,26 @@ public class CommentService {
     comment.setPost(post);
     comment.setUser(user);
 
-    return commentRepository.save(comment);
+    Comment saved = commentRepository.save(comment);
+    counterService.commentAdded(
+        postId, saved.getCreatedAt() != null ? saved.getCreatedAt() : Instant.now());
+    invalidationBus.publish(CacheInvalidationBus.POST_RESPONSE, postId);
+    outbox.append(
+        DomainEventOutbox.COMMENT,
+        saved.getId(),
+        DomainEventOutbox.COMMENT_ADDED,
+        Map.of("postId", postId));
+    event.end();
+    if (event.shouldCommit()) {
+      event.postId = postId;
+      event.registeredAuthor = user != null;
+      event.contentLength = comment.getCommentContent() == null ? 0 : comment.getCommentContent().length();
+      event.commit();
+    }
+    meterRegistry
+        .counter("blogapp.comments.created", "author", user != null ? "registered" : "guest")
+        .increment();
+    return saved;
   }
 
   /** Hard-delete a single comment by its ID. */
@@ -51,6 +92,8 @@ public class CommentService {
     Comment comment = getCommentById(commentId);
     if (comment != null) {
       commentRepository.delete(comment);
+      counterService.commentsRemoved(comment.getPost().getId(), 1);
+      invalidationBus.publish(CacheInvalidationBus.POST_RESPONSE, comment.getPost().getId());
     }
   }
 
@@ -59,6 +102,8 @@ public class CommentService {
   public void deleteCommentsByPostId(Long postId) {
     Set<Comment> comments = getCommentsByPostId(postId);
     commentRepository.deleteAll(comments);
+    counterService.commentsRemoved(postId, comments.size());
+    invalidationBus.publish(CacheInvalidationBus.POST_RESPONSE, postId);
   }
 
   /** Partially update an existing comment's fields. */
@@ -80,5 +125,6 @@ public class CommentService {
     }
 
     commentRepository.save(comment);
+    invalidationBus.publish(CacheInvalidationBus.POST_RESPONSE, comment.getPost().getId());
   }
 }
@@ -0,0 +1,189 @@
+package com.blogapp.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Folds pending {@code counter_delta} stripes into the counter columns, and periodically
+ * recomputes every counter from the source tables.
+ *
+ * <p>Each fold batch claims stripe rows with {@code SKIP LOCKED}, so it never waits on a writer
+ * whose transaction is still open; those rows are picked up by the next run.
+ */
+@Component
+public class CounterMaintenanceJob {
+
+  private static final Logger log = LoggerFactory.getLogger(CounterMaintenanceJob.class);
+
+  private static final String CLAIM_BATCH =
+      "WITH claimed AS ("
+          + "DELETE FROM counter_delta WHERE (counter, entity_id, stripe) IN ("
+          + "SELECT counter, entity_id, stripe FROM counter_delta WHERE counter = ? "
+          + "LIMIT ? FOR UPDATE SKIP LOCKED) "
+          + "RETURNING entity_id, delta, last_at, decremented), "
+          + "folded AS ("
+          + "SELECT entity_id, SUM(delta) AS delta, MAX(last_at) AS last_at, "
+          + "BOOL_OR(decremented) AS decremented FROM claimed GROUP BY entity_id)";
+
+  private static final String FOLD_POST_COMMENTS =
+      CLAIM_BATCH
+          + ", applied AS ("
+          + "UPDATE post p SET comment_count = p.comment_count + f.delta, "
+          + "last_comment_at = CASE WHEN f.decremented "
+          + "THEN (SELECT MAX(c.created_at) FROM comment c WHERE c.post_id = p.id) "
+          + "ELSE GREATEST(p.last_comment_at, f.last_at) END "
+          + "FROM folded f WHERE p.id = f.entity_id) "
+          + "SELECT COUNT(*) FROM claimed";
+
+  private static final String FOLD_TAG_POSTS =
+      CLAIM_BATCH
+          + ", applied AS ("
+          + "UPDATE tag t SET post_count = t.post_count + f.delta "
+          + "FROM folded f WHERE t.id = f.entity_id) "
+          + "SELECT COUNT(*) FROM claimed";
+
+  private static final String FOLD_POST_VIEWS =
+      CLAIM_BATCH
+          + ", applied AS ("
+          + "UPDATE post p SET view_count = p.view_count + f.delta "
+          + "FROM folded f WHERE p.id = f.entity_id) "
+          + "SELECT COUNT(*) FROM claimed";
+
+  /** Pending stripes of the batch, which the recount must leave for the fold to add. */
+  private static final String PENDING =
+      "LEFT JOIN (SELECT entity_id, SUM(delta) AS delta FROM counter_delta "
+          + "WHERE counter = ? AND entity_id = ANY(?) GROUP BY entity_id) d "
+          + "ON d.entity_id = ids.id";
+
+  private static final String LOCK_POSTS =
+      "SELECT id FROM post WHERE id > ? ORDER BY id LIMIT ? FOR NO KEY UPDATE";
+
+  // While stripes are pending last_comment_at may lag the recount, which their fold makes up.
+  private static final String REPAIR_POST_COMMENTS =
+      "UPDATE post p SET comment_count = r.comment_count, "
+          + "last_comment_at = CASE WHEN r.pending "
+          + "THEN LEAST(p.last_comment_at, r.last_comment_at) ELSE r.last_comment_at END "
+          + "FROM (SELECT ids.id, "
+          + "(SELECT COUNT(*) FROM comment c WHERE c.post_id = ids.id) - COALESCE(d.delta, 0) "
+          + "AS comment_count, "
+          + "(SELECT MAX(c.created_at) FROM comment c WHERE c.post_id = ids.id) "
+          + "AS last_comment_at, "
+          + "d.delta IS NOT NULL AS pending "
+          + "FROM unnest(?::bigint[]) AS ids(id) "
+          + PENDING
+          + ") r "
+          + "WHERE p.id = r.id AND (p.comment_count <> r.comment_count OR CASE WHEN r.pending "
+          + "THEN p.last_comment_at > r.last_comment_at "
+          + "ELSE p.last_comment_at IS DISTINCT FROM r.last_comment_at END)";
+
+  private static final String LOCK_TAGS =
+      "SELECT id FROM tag WHERE id > ? ORDER BY id LIMIT ? FOR NO KEY UPDATE";
+
+  private static final String REPAIR_TAG_POSTS =
+      "UPDATE tag t SET post_count = r.post_count "
+          + "FROM (SELECT ids.id, "
+          + "(SELECT COUNT(*) FROM post_tag pt WHERE pt.tag_id = ids.id) - COALESCE(d.delta, 0) "
+          + "AS post_count "
+          + "FROM unnest(?::bigint[]) AS ids(id) "
+          + PENDING
+          + ") r "
+          + "WHERE t.id = r.id AND t.post_count <> r.post_count";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+  private final int maxBatchesPerRun;
+  private final int repairBatchSize;
+
+  public CounterMaintenanceJob(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${blogapp.counters.fold.batch-size:1000}") int batchSize,
+      @Value("${blogapp.counters.fold.max-batches-per-run:100}") int maxBatchesPerRun,
+      @Value("${blogapp.counters.repair.batch-size:1000}") int repairBatchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+    this.maxBatchesPerRun = maxBatchesPerRun;
+    this.repairBatchSize = repairBatchSize;
+  }
+
+  @Scheduled(
+      fixedDelayString = "${blogapp.counters.fold.interval:5s}",
+      initialDelayString = "${blogapp.counters.fold.interval:5s}")
+  public void fold() {
+    fold(CounterService.POST_COMMENTS, FOLD_POST_COMMENTS);
+    fold(CounterService.TAG_POSTS, FOLD_TAG_POSTS);
+    fold(CounterService.POST_VIEWS, FOLD_POST_VIEWS);
+  }
+
+  private void fold(String counter, String statement) {
+    for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+      Long claimed = jdbcTemplate.queryForObject(statement, Long.class, counter, batchSize);
+      if (claimed == null || claimed < batchSize) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Recompute the comment and tag counters from {@code comment} and {@code post_tag}, one batch
+   * of rows at a time. Each batch locks its rows, so a fold of those rows waits for the batch
+   * rather than adding to a value it overwrites, and sets each counter to the recount less the
+   * stripes still pending. Writers keep adding deltas throughout. View counts have no source to
+   * recount from and are left alone.
+   */
+  @Scheduled(cron = "${blogapp.counters.repair.cron:0 30 3 * * *}")
+  public void repair() {
+    int posts = repair(LOCK_POSTS, REPAIR_POST_COMMENTS, CounterService.POST_COMMENTS);
+    int tags = repair(LOCK_TAGS, REPAIR_TAG_POSTS, CounterService.TAG_POSTS);
+    if (posts > 0 || tags > 0) {
+      log.warn("Counter repair corrected {} posts and {} tags", posts, tags);
+    }
+  }
+
+  private int repair(String lock, String recount, String counter) {
+    int repaired = 0;
+    long after = 0;
+    while (true) {
+      long cursor = after;
+      Batch batch =
+          transactionTemplate.execute(
+              status -> {
+                Long[] ids =
+                    jdbcTemplate
+                        .queryForList(lock, Long.class, cursor, repairBatchSize)
+                        .toArray(Long[]::new);
+                if (ids.length == 0) {
+                  return new Batch(ids, 0);
+                }
+                // A new statement, so it sees every fold that finished before the lock.
+                int updated =
+                    jdbcTemplate.update(
+                        recount,
+                        ps -> {
+                          ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+                          ps.setString(2, counter);
+                          ps.setArray(3, ps.getConnection().createArrayOf("bigint", ids));
+                        });
+                return new Batch(ids, updated);
+              });
+      if (batch == null || batch.ids().length == 0) {
+        return repaired;
+      }
+      repaired += batch.updated();
+      if (batch.ids().length < repairBatchSize) {
+        return repaired;
+      }
+      after = batch.ids()[batch.ids().length - 1];
+    }
+  }
+
+  private record Batch(Long[] ids, int updated) {}
+}
@@ -0,0 +1,83 @@
+package com.blogapp.services;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Transactional updates to the denormalized {@code post.comment_count}, {@code
+ * post.last_comment_at} and {@code tag.post_count} columns.
+ *
+ * <p>Writers add a delta to one of {@code blogapp.counters.stripes} rows in {@code counter_delta}
+ * inside their own transaction, so concurrent comments on a hot post take different row locks
+ * instead of queueing on the post row. {@link CounterMaintenanceJob} folds the stripes into the
+ * owning rows; readers that need an exact value add the pending stripes themselves.
+ */
+@Service
+public class CounterService {
+
+  static final String POST_COMMENTS = "post.comments";
+  static final String TAG_POSTS = "tag.posts";
+  static final String POST_VIEWS = "post.views";
+
+  private static final String ADD_DELTA =
+      "INSERT INTO counter_delta (counter, entity_id, stripe, delta, last_at, decremented) "
+          + "VALUES (?, ?, ?, ?, ?, ?) "
+          + "ON CONFLICT (counter, entity_id, stripe) DO UPDATE SET "
+          + "delta = counter_delta.delta + EXCLUDED.delta, "
+          + "last_at = GREATEST(counter_delta.last_at, EXCLUDED.last_at), "
+          + "decremented = counter_delta.decremented OR EXCLUDED.decremented";
+
+  private static final String TAG_POST_COUNT =
+      "SELECT t.post_count + COALESCE(("
+          + "SELECT SUM(d.delta) FROM counter_delta d "
+          + "WHERE d.counter = '" + TAG_POSTS + "' AND d.entity_id = t.id), 0) "
+          + "FROM tag t WHERE t.id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int stripes;
+
+  public CounterService(
+      JdbcTemplate jdbcTemplate, @Value("${blogapp.counters.stripes:8}") int stripes) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.stripes = stripes;
+  }
+
+  public void commentAdded(long postId, Instant createdAt) {
+    addDelta(POST_COMMENTS, postId, 1, createdAt);
+  }
+
+  public void commentsRemoved(long postId, int count) {
+    if (count > 0) {
+      addDelta(POST_COMMENTS, postId, -count, null);
+    }
+  }
+
+  public void tagAttached(long tagId) {
+    addDelta(TAG_POSTS, tagId, 1, null);
+  }
+
+  public void tagDetached(long tagId) {
+    addDelta(TAG_POSTS, tagId, -1, null);
+  }
+
+  /** Exact number of posts carrying the tag, including deltas not yet folded. */
+  public long postCount(long tagId) {
+    Long count = jdbcTemplate.queryForObject(TAG_POST_COUNT, Long.class, tagId);
+    return count == null ? 0 : count;
+  }
+
+  private void addDelta(String counter, long entityId, long delta, Instant lastAt) {
+    jdbcTemplate.update(
+        ADD_DELTA,
+        counter,
+        entityId,
+        ThreadLocalRandom.current().nextInt(stripes),
+        delta,
+        lastAt == null ? null : Timestamp.from(lastAt),
+        delta < 0);
+  }
+}
@@ -0,0 +1,55 @@
+package com.blogapp.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Appends domain events to {@code outbox_event} inside the writing transaction, so an event exists
+ * exactly when the change it describes has committed. {@link OutboxRelay} delivers them to
+ * {@link OutboxHandler}s afterwards.
+ *
+ * <p>Payloads carry ids and small facts about the change, not entity snapshots; handlers that need
+ * more read the current state.
+ */
+@Component
+public class DomainEventOutbox {
+
+  public static final String POST = "post";
+  public static final String COMMENT = "comment";
+
+  public static final String POST_CREATED = "post.created";
+  public static final String POST_UPDATED = "post.updated";
+  public static final String POST_DELETED = "post.deleted";
+  public static final String COMMENT_ADDED = "comment.added";
+
+  private static final String APPEND =
+      "INSERT INTO outbox_event (aggregate_type, aggregate_id, event_type, payload) "
+          + "VALUES (?, ?, ?, ?::jsonb)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+
+  public DomainEventOutbox(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+  }
+
+  public void append(
+      String aggregateType, long aggregateId, String eventType, Map<String, ?> payload) {
+    if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+      throw new IllegalStateException(
+          "Outbox events must be appended inside the transaction that makes the change");
+    }
+    String json;
+    try {
+      json = objectMapper.writeValueAsString(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Unserializable payload for " + eventType, e);
+    }
+    jdbcTemplate.update(APPEND, aggregateType, aggregateId, eventType, json);
+  }
+}
@@ -0,0 +1,371 @@
+package com.blogapp.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * Atom feeds of the latest published posts, for the whole site, an author or a tag.
+ *
+ * <p>A feed is written once with a streaming XML writer into a byte array, gzipped alongside when
+ * {@code blogapp.feeds.gzip} is set, and served from memory until a post in it or a post that
+ * would now enter it changes. Post changes arrive on the {@link CacheInvalidationBus}, so every
+ * node evicts only the feeds a change affects; a new comment or a recomputed counter leaves them
+ * alone. Finding those feeds takes a query, which runs on a {@code feed-invalidation} thread
+ * rather than on the writer that published the change. An author rename evicts the feeds listing
+ * that author's posts. A change that is missed, because the listener was disconnected or the feed
+ * was still loading, shows once the feed is {@code cache-ttl} old.
+ */
+@Component
+public class FeedService {
+
+  private static final Logger log = LoggerFactory.getLogger(FeedService.class);
+  private static final String ATOM = "http://www.w3.org/2005/Atom";
+  private static final String SITE = "site";
+  private static final String AUTHOR = "author:";
+  private static final String TAG = "tag:";
+
+  private static final String ENTRIES =
+      "SELECT p.id, p.title, p.excerpt, p.published_at, p.updated_at, p.author_id, u.name "
+          + "FROM post p JOIN \"user\" u ON u.id = p.author_id WHERE p.is_published "
+          + "AND p.published_at IS NOT NULL ";
+  private static final String NEWEST = "ORDER BY p.published_at DESC, p.id DESC LIMIT ?";
+  private static final String POST_STATE =
+      "SELECT p.id, p.title, p.excerpt, p.published_at, p.updated_at, p.is_published, "
+          + "p.author_id, ARRAY(SELECT t.name FROM post_tag pt JOIN tag t ON t.id = pt.tag_id "
+          + "WHERE pt.post_id = p.id) FROM post p WHERE p.id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
+  private final String baseUrl;
+  private final String siteTitle;
+  private final int size;
+  private final boolean gzip;
+  private final LoadingCache<String, CachedFeed> feeds;
+  private final Set<Long> pendingPosts = ConcurrentHashMap.newKeySet();
+  private final ExecutorService invalidations =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "feed-invalidation");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  public FeedService(
+      JdbcTemplate jdbcTemplate,
+      CacheInvalidationBus invalidationBus,
+      MeterRegistry meterRegistry,
+      @Value("${blogapp.base-url:http://localhost:8080}") String baseUrl,
+      @Value("${blogapp.feeds.title:BlogApp}") String siteTitle,
+      @Value("${blogapp.feeds.size:20}") int size,
+      @Value("${blogapp.feeds.gzip:true}") boolean gzip,
+      @Value("${blogapp.feeds.maximum-size:1000}") long maximumSize,
+      @Value("${blogapp.feeds.cache-ttl:1h}") Duration ttl) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    this.siteTitle = siteTitle;
+    this.size = size;
+    this.gzip = gzip;
+    this.feeds =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build(this::load);
+    CaffeineCacheMetrics.monitor(meterRegistry, feeds, "feeds");
+    invalidationBus.subscribe(
+        CacheInvalidationBus.POST, this::queuePostChange, feeds::invalidateAll);
+    invalidationBus.subscribe(CacheInvalidationBus.USER, this::authorChanged, feeds::invalidateAll);
+  }
+
+  public Feed siteFeed() {
+    return feeds.get(SITE).feed();
+  }
+
+  /** The author's feed, or empty when there is no such user. */
+  public Optional<Feed> authorFeed(long authorId) {
+    return Optional.ofNullable(feeds.get(AUTHOR + authorId)).map(CachedFeed::feed);
+  }
+
+  /** The tag's feed, or empty when there is no such tag. */
+  public Optional<Feed> tagFeed(String tagName) {
+    return Optional.ofNullable(feeds.get(TAG + TagService.normalizeName(tagName)))
+        .map(CachedFeed::feed);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    invalidations.shutdownNow();
+  }
+
+  /** Null for an unknown author or tag, which Caffeine does not cache. */
+  private CachedFeed load(String key) {
+    if (key.equals(SITE)) {
+      return write(key, siteTitle, baseUrl + "/", ENTRIES + NEWEST, size);
+    }
+    if (key.startsWith(AUTHOR)) {
+      long authorId = Long.parseLong(key.substring(AUTHOR.length()));
+      return jdbcTemplate
+          .queryForList("SELECT name FROM \"user\" WHERE id = ?", String.class, authorId)
+          .stream()
+          .findFirst()
+          .map(
+              name ->
+                  write(
+                      key,
+                      siteTitle + ": posts by " + name,
+                      baseUrl
+                          + "/?authorNames="
+                          + URLEncoder.encode(name, StandardCharsets.UTF_8),
+                      ENTRIES + "AND p.author_id = ? " + NEWEST,
+                      authorId,
+                      size))
+          .orElse(null);
+    }
+    String tagName = key.substring(TAG.length());
+    return jdbcTemplate
+        .queryForList("SELECT id FROM tag WHERE name = ?", Long.class, tagName)
+        .stream()
+        .findFirst()
+        .map(
+            tagId ->
+                write(
+                    key,
+                    siteTitle + ": posts tagged " + tagName,
+                    baseUrl + "/?tagIds=" + tagId,
+                    ENTRIES
+                        + "AND p.id IN (SELECT post_id FROM post_tag WHERE tag_id = ?) "
+                        + NEWEST,
+                    tagId,
+                    size))
+        .orElse(null);
+  }
+
+  private CachedFeed write(String key, String title, String alternate, String sql, Object... args) {
+    Map<Long, Entry> entries = new HashMap<>();
+    Instant[] oldest = {null};
+    Instant[] updated = {Instant.EPOCH};
+    ByteArrayOutputStream xml = new ByteArrayOutputStream(8192);
+    try {
+      XMLStreamWriter writer = xmlOutputFactory.createXMLStreamWriter(xml, "UTF-8");
+      writer.writeStartDocument("UTF-8", "1.0");
+      writer.writeStartElement("feed");
+      writer.writeDefaultNamespace(ATOM);
+      element(writer, "id", baseUrl + "/" + feedPath(key));
+      element(writer, "title", title);
+      link(writer, "self", baseUrl + "/" + feedPath(key));
+      link(writer, "alternate", alternate);
+      jdbcTemplate.query(
+          sql,
+          rs -> {
+            try {
+              Instant entryUpdated = writeEntry(writer, rs);
+              Instant publishedAt = rs.getTimestamp(4).toInstant();
+              entries.put(rs.getLong(1), new Entry(fingerprint(rs), rs.getLong(6)));
+              oldest[0] = publishedAt;
+              if (entryUpdated.isAfter(updated[0])) {
+                updated[0] = entryUpdated;
+              }
+            } catch (XMLStreamException e) {
+              throw new IllegalStateException("Could not write feed " + key, e);
+            }
+          },
+          args);
+      // Atom does not order the children of a feed, so its update time can follow the entries.
+      element(writer, "updated", DateTimeFormatter.ISO_INSTANT.format(updated[0]));
+      writer.writeEndElement();
+      writer.writeEndDocument();
+      writer.close();
+    } catch (XMLStreamException e) {
+      throw new IllegalStateException("Could not write feed " + key, e);
+    }
+    byte[] bytes = xml.toByteArray();
+    String etag = '"' + DigestUtils.md5DigestAsHex(bytes) + '"';
+    Feed feed = new Feed(bytes, gzip ? gzip(bytes) : null, etag, updated[0]);
+    boolean full = entries.size() >= size;
+    return new CachedFeed(feed, key, entries, full ? oldest[0] : null);
+  }
+
+  private Instant writeEntry(XMLStreamWriter writer, ResultSet rs)
+      throws SQLException, XMLStreamException {
+    String url = baseUrl + "/posts/" + rs.getLong(1);
+    Timestamp updatedAt = rs.getTimestamp(5);
+    Instant published = rs.getTimestamp(4).toInstant();
+    Instant updated = updatedAt == null ? published : updatedAt.toInstant();
+    writer.writeStartElement("entry");
+    element(writer, "id", url);
+    element(writer, "title", rs.getString(2));
+    link(writer, "alternate", url);
+    element(writer, "published", DateTimeFormatter.ISO_INSTANT.format(published));
+    element(writer, "updated", DateTimeFormatter.ISO_INSTANT.format(updated));
+    writer.writeStartElement("author");
+    element(writer, "name", rs.getString(7));
+    writer.writeEndElement();
+    String excerpt = rs.getString(3);
+    if (excerpt != null) {
+      element(writer, "summary", excerpt);
+    }
+    writer.writeEndElement();
+    return updated;
+  }
+
+  private static void element(XMLStreamWriter writer, String name, String text)
+      throws XMLStreamException {
+    writer.writeStartElement(name);
+    writer.writeCharacters(text);
+    writer.writeEndElement();
+  }
+
+  private static void link(XMLStreamWriter writer, String rel, String href)
+      throws XMLStreamException {
+    writer.writeEmptyElement("link");
+    writer.writeAttribute("rel", rel);
+    writer.writeAttribute("href", href);
+  }
+
+  private static String feedPath(String key) {
+    if (key.startsWith(AUTHOR)) {
+      return "authors/" + key.substring(AUTHOR.length()) + "/feed.xml";
+    }
+    if (key.startsWith(TAG)) {
+      String tagName = key.substring(TAG.length());
+      return "tags/" + UriUtils.encodePathSegment(tagName, StandardCharsets.UTF_8) + "/feed.xml";
+    }
+    return "feed.xml";
+  }
+
+  private static byte[] gzip(byte[] bytes) {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+    try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+      out.write(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return compressed.toByteArray();
+  }
+
+  /** Hand a change to the invalidation thread, once per post however often it is published. */
+  private void queuePostChange(long postId) {
+    if (pendingPosts.add(postId)) {
+      invalidations.execute(
+          () -> {
+            pendingPosts.remove(postId);
+            try {
+              postChanged(postId);
+            } catch (RuntimeException e) {
+              log.warn("Could not look up post {}, evicting every feed", postId, e);
+              feeds.invalidateAll();
+            }
+          });
+    }
+  }
+
+  /** Evict the feeds the post was in, or now belongs in. */
+  private void postChanged(long postId) {
+    PostState state =
+        jdbcTemplate
+            .query(
+                POST_STATE,
+                (rs, rowNum) -> {
+                  Timestamp publishedAt = rs.getTimestamp(4);
+                  Array tags = rs.getArray(8);
+                  return new PostState(
+                      fingerprint(rs),
+                      publishedAt == null ? null : publishedAt.toInstant(),
+                      rs.getBoolean(6),
+                      rs.getLong(7),
+                      Set.of((String[]) tags.getArray()));
+                },
+                postId)
+            .stream()
+            .findFirst()
+            .orElse(null);
+    feeds.asMap().values().stream()
+        .filter(cached -> cached.affectedBy(postId, state))
+        .forEach(cached -> feeds.invalidate(cached.key()));
+  }
+
+  private void authorChanged(long userId) {
+    feeds.invalidate(AUTHOR + userId);
+    feeds.asMap().values().stream()
+        .filter(
+            cached ->
+                cached.entries().values().stream().anyMatch(entry -> entry.authorId() == userId))
+        .forEach(cached -> feeds.invalidate(cached.key()));
+  }
+
+  /** A rendered feed; {@code gzipped} is null unless precompressed bytes are enabled. */
+  public record Feed(byte[] xml, byte[] gzipped, String etag, Instant updated) {}
+
+  /** What an entry renders from, other than its author's name. */
+  private static int fingerprint(ResultSet rs) throws SQLException {
+    return Objects.hash(rs.getString(2), rs.getString(3), rs.getTimestamp(4), rs.getTimestamp(5));
+  }
+
+  private record Entry(int fingerprint, long authorId) {}
+
+  private record PostState(
+      int fingerprint, Instant publishedAt, boolean published, long authorId, Set<String> tags) {}
+
+  /** {@code oldestPublishedAt} is null while the feed has room for more entries. */
+  private record CachedFeed(
+      Feed feed, String key, Map<Long, Entry> entries, Instant oldestPublishedAt) {
+
+    boolean affectedBy(long postId, PostState state) {
+      Entry entry = entries.get(postId);
+      boolean belongs =
+          state != null
+              && state.published()
+              && state.publishedAt() != null
+              && matches(state)
+              && (oldestPublishedAt == null || !state.publishedAt().isBefore(oldestPublishedAt));
+      if (entry == null) {
+        return belongs;
+      }
+      return !belongs || entry.fingerprint() != state.fingerprint();
+    }
+
+    private boolean matches(PostState state) {
+      if (key.startsWith(AUTHOR)) {
+        return Long.parseLong(key.substring(AUTHOR.length())) == state.authorId();
+      }
+      if (key.startsWith(TAG)) {
+        return state.tags().contains(key.substring(TAG.length()));
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package com.blogapp.services;
+
+import java.time.Instant;
+
+/** A domain event read back from the outbox; {@code payload} is the JSON written by its producer. */
+public record OutboxEvent(
+    long id,
+    long txId,
+    String aggregateType,
+    long aggregateId,
+    String eventType,
+    String payload,
+    Instant createdAt) {}
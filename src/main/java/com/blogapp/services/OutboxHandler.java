@@ -0,0 +1,19 @@
+package com.blogapp.services;
+
+import java.util.List;
+
+/**
+ * An asynchronous consumer of outbox events. Register one as a bean and {@link OutboxRelay}
+ * delivers every event, in commit order, at least once.
+ *
+ * <p>Batches are handled inside the relay's transaction: database work done by the handler commits
+ * together with its new offset, and throwing rolls both back so the batch is delivered again. Side
+ * effects outside the database must tolerate seeing an event more than once.
+ */
+public interface OutboxHandler {
+
+  /** Stable name under which the handler's offset is stored; renaming it replays the outbox. */
+  String name();
+
+  void handle(List<OutboxEvent> events);
+}
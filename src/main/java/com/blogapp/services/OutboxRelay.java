@@ -0,0 +1,235 @@
+package com.blogapp.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Delivers outbox events to every {@link OutboxHandler} bean, in batches, each handler at its own
+ * pace.
+ *
+ * <p>A batch locks the handler's {@code outbox_offset} row with {@code SKIP LOCKED}, so on several
+ * nodes only one delivers to a given handler at a time and the others move on. Events are read in
+ * {@code (tx_id, id)} order up to the oldest transaction still running, so an event that commits
+ * late is never skipped; a long-running writer holds delivery back until it finishes. A handler
+ * that throws is retried with backoff from the same offset.
+ *
+ * <p>Delivered events are kept for {@code blogapp.outbox.retention}, so a handler can be rewound
+ * with {@link #replay}.
+ */
+@Component
+@ConditionalOnProperty(name = "blogapp.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+  private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+  private static final long MAX_RETRY_DELAY_MILLIS = 60_000;
+
+  private static final String REGISTER =
+      "INSERT INTO outbox_offset (handler) VALUES (?) ON CONFLICT (handler) DO NOTHING";
+  private static final String CLAIM_OFFSET =
+      "SELECT last_tx_id, last_event_id FROM outbox_offset WHERE handler = ? "
+          + "FOR UPDATE SKIP LOCKED";
+  private static final String READ_BATCH =
+      "SELECT id, tx_id, aggregate_type, aggregate_id, event_type, payload::text, created_at "
+          + "FROM outbox_event WHERE (tx_id, id) > (?, ?) "
+          + "AND tx_id < pg_snapshot_xmin(pg_current_snapshot())::text::bigint "
+          + "ORDER BY tx_id, id LIMIT ?";
+  private static final String ADVANCE =
+      "UPDATE outbox_offset SET last_tx_id = ?, last_event_id = ?, updated_at = now() "
+          + "WHERE handler = ?";
+  private static final String FIRST_EVENT_SINCE =
+      "SELECT tx_id, id FROM outbox_event WHERE created_at >= ? ORDER BY tx_id, id LIMIT 1";
+  private static final String STATUS =
+      "SELECT o.handler, o.last_event_id, o.updated_at, "
+          + "(SELECT COUNT(*) FROM outbox_event e "
+          + "WHERE (e.tx_id, e.id) > (o.last_tx_id, o.last_event_id)) AS pending "
+          + "FROM outbox_offset o ORDER BY o.handler";
+  private static final String PURGE =
+      "DELETE FROM outbox_event WHERE created_at < ? AND (tx_id, id) <= (?, ?)";
+
+  private static final RowMapper<OutboxEvent> EVENT =
+      (rs, rowNum) ->
+          new OutboxEvent(
+              rs.getLong(1),
+              rs.getLong(2),
+              rs.getString(3),
+              rs.getLong(4),
+              rs.getString(5),
+              rs.getString(6),
+              rs.getTimestamp(7).toInstant());
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final List<OutboxHandler> handlers;
+  private final MeterRegistry meterRegistry;
+  private final int batchSize;
+  private final int maxBatchesPerRun;
+  private final Duration retention;
+  private final Map<String, Retry> retries = new ConcurrentHashMap<>();
+
+  private volatile boolean registered;
+
+  public OutboxRelay(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      ObjectProvider<OutboxHandler> handlers,
+      MeterRegistry meterRegistry,
+      @Value("${blogapp.outbox.relay.batch-size:500}") int batchSize,
+      @Value("${blogapp.outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun,
+      @Value("${blogapp.outbox.retention:7d}") Duration retention) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.handlers = handlers.orderedStream().toList();
+    this.meterRegistry = meterRegistry;
+    this.batchSize = batchSize;
+    this.maxBatchesPerRun = maxBatchesPerRun;
+    this.retention = retention;
+  }
+
+  @Scheduled(
+      fixedDelayString = "${blogapp.outbox.relay.interval:1s}",
+      initialDelayString = "${blogapp.outbox.relay.interval:1s}")
+  public void relay() {
+    if (!registered) {
+      // A new handler starts from the oldest retained event.
+      handlers.forEach(handler -> jdbcTemplate.update(REGISTER, handler.name()));
+      registered = true;
+    }
+    long now = System.currentTimeMillis();
+    for (OutboxHandler handler : handlers) {
+      Retry retry = retries.get(handler.name());
+      if (retry != null && now < retry.notBefore()) {
+        continue;
+      }
+      try {
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+          if (deliverBatch(handler) < batchSize) {
+            break;
+          }
+        }
+        retries.remove(handler.name());
+      } catch (RuntimeException e) {
+        int attempts = retry == null ? 1 : retry.attempts() + 1;
+        long delay = Math.min(1_000L << Math.min(attempts, 16), MAX_RETRY_DELAY_MILLIS);
+        retries.put(handler.name(), new Retry(attempts, now + delay));
+        meterRegistry.counter("blogapp.outbox.failures", "handler", handler.name()).increment();
+        log.warn(
+            "Outbox handler {} failed (attempt {}), retrying in {} ms",
+            handler.name(),
+            attempts,
+            delay,
+            e);
+      }
+    }
+  }
+
+  /** Number of events delivered, zero when there were none or another node holds the handler. */
+  private int deliverBatch(OutboxHandler handler) {
+    Integer delivered =
+        transactionTemplate.execute(
+            status -> {
+              List<long[]> offset =
+                  jdbcTemplate.query(
+                      CLAIM_OFFSET,
+                      (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)},
+                      handler.name());
+              if (offset.isEmpty()) {
+                return 0;
+              }
+              List<OutboxEvent> events =
+                  jdbcTemplate.query(
+                      READ_BATCH, EVENT, offset.get(0)[0], offset.get(0)[1], batchSize);
+              if (events.isEmpty()) {
+                return 0;
+              }
+              handler.handle(events);
+              OutboxEvent last = events.get(events.size() - 1);
+              jdbcTemplate.update(ADVANCE, last.txId(), last.id(), handler.name());
+              return events.size();
+            });
+    int count = delivered == null ? 0 : delivered;
+    if (count > 0) {
+      meterRegistry.counter("blogapp.outbox.delivered", "handler", handler.name()).increment(count);
+    }
+    return count;
+  }
+
+  /**
+   * Rewind a handler to the first retained event created at or after {@code from}, or to the
+   * oldest retained event when {@code from} is null. Returns false for an unknown handler.
+   */
+  public boolean replay(String handlerName, Instant from) {
+    long txId = 0;
+    long eventId = 0;
+    if (from != null) {
+      List<long[]> first =
+          jdbcTemplate.query(
+              FIRST_EVENT_SINCE,
+              (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)},
+              Timestamp.from(from));
+      if (first.isEmpty()) {
+        return handlers.stream().anyMatch(handler -> handler.name().equals(handlerName));
+      }
+      txId = first.get(0)[0];
+      eventId = first.get(0)[1] - 1;
+    }
+    boolean rewound = jdbcTemplate.update(ADVANCE, txId, eventId, handlerName) > 0;
+    if (rewound) {
+      retries.remove(handlerName);
+      log.info("Outbox handler {} rewound to event {}", handlerName, eventId);
+    }
+    return rewound;
+  }
+
+  public List<HandlerStatus> status() {
+    return jdbcTemplate.query(
+        STATUS,
+        (rs, rowNum) ->
+            new HandlerStatus(
+                rs.getString(1), rs.getLong(2), rs.getLong(4), rs.getTimestamp(3).toInstant()));
+  }
+
+  /** Delete events past retention that every registered handler has already consumed. */
+  @Scheduled(
+      fixedDelayString = "${blogapp.outbox.purge-interval:1h}",
+      initialDelayString = "${blogapp.outbox.purge-interval:1h}")
+  public void purge() {
+    long[] oldest = {Long.MAX_VALUE, Long.MAX_VALUE};
+    for (OutboxHandler handler : handlers) {
+      List<long[]> offset =
+          jdbcTemplate.query(
+              "SELECT last_tx_id, last_event_id FROM outbox_offset WHERE handler = ?",
+              (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)},
+              handler.name());
+      long[] position = offset.isEmpty() ? new long[] {0, 0} : offset.get(0);
+      if (position[0] < oldest[0] || (position[0] == oldest[0] && position[1] < oldest[1])) {
+        oldest = position;
+      }
+    }
+    int purged =
+        jdbcTemplate.update(
+            PURGE, Timestamp.from(Instant.now().minus(retention)), oldest[0], oldest[1]);
+    if (purged > 0) {
+      log.info("Purged {} outbox events", purged);
+    }
+  }
+
+  public record HandlerStatus(String handler, long lastEventId, long pending, Instant updatedAt) {}
+
+  private record Retry(int attempts, long notBefore) {}
+}
@@ -0,0 +1,107 @@
+package com.blogapp.services;
+
+import com.blogapp.models.PostBodyCodec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves post bodies still held in the plain-text {@code content} column into {@code
+ * content_encoded} and {@code content_tsv}, one batch per run.
+ *
+ * <p>Rows are locked with {@code SKIP LOCKED} for the duration of their batch so an edit in
+ * progress is never overwritten; rows skipped that way are picked up by the next pass. Once no row
+ * is left the job stops scanning until the next restart, and the migration that drops {@code
+ * content} can ship.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "blogapp.posts.compression.backfill.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class PostBodyCompressionJob {
+
+  private static final Logger log = LoggerFactory.getLogger(PostBodyCompressionJob.class);
+
+  private static final String SELECT_LEGACY_BATCH =
+      "SELECT id, content FROM post WHERE id > ? AND content_encoded IS NULL "
+          + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+  private static final String MOVE =
+      "UPDATE post SET content_encoded = ?, content_tsv = to_tsvector('simple', ?), "
+          + "content = NULL WHERE id = ?";
+  private static final String ANY_LEGACY =
+      "SELECT EXISTS (SELECT 1 FROM post WHERE content_encoded IS NULL)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final PostBodyCodec codec;
+  private final int batchSize;
+
+  private long lastId;
+  private long moved;
+  private long bytesSaved;
+  private volatile boolean finished;
+
+  public PostBodyCompressionJob(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      PostBodyCodec codec,
+      @Value("${blogapp.posts.compression.backfill.batch-size:100}") int batchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.codec = codec;
+    this.batchSize = batchSize;
+  }
+
+  @Scheduled(
+      fixedDelayString = "${blogapp.posts.compression.backfill.interval:10s}",
+      initialDelayString = "${blogapp.posts.compression.backfill.interval:10s}")
+  public void compressBatch() {
+    if (finished) {
+      return;
+    }
+    List<Long> ids =
+        transactionTemplate.execute(
+            status -> {
+              List<Object[]> rows =
+                  jdbcTemplate.query(
+                      SELECT_LEGACY_BATCH,
+                      (rs, rowNum) -> new Object[] {rs.getLong(1), rs.getString(2)},
+                      lastId,
+                      batchSize);
+              List<Object[]> updates = new ArrayList<>(rows.size());
+              for (Object[] row : rows) {
+                String body = row[1] == null ? "" : (String) row[1];
+                byte[] encoded = codec.encode(body);
+                updates.add(new Object[] {encoded, body, row[0]});
+                moved++;
+                bytesSaved += body.getBytes(StandardCharsets.UTF_8).length + 1 - encoded.length;
+              }
+              if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(MOVE, updates);
+              }
+              return rows.stream().map(row -> (Long) row[0]).toList();
+            });
+    if (ids != null && !ids.isEmpty()) {
+      lastId = ids.get(ids.size() - 1);
+      return;
+    }
+    lastId = 0;
+    if (Boolean.FALSE.equals(jdbcTemplate.queryForObject(ANY_LEGACY, Boolean.class))) {
+      finished = true;
+      log.info(
+          "Every post body is in content_encoded; moved {} since startup, saving {} bytes",
+          moved,
+          bytesSaved);
+    }
+  }
+}
@@ -0,0 +1,246 @@
+package com.blogapp.services;
+
+import com.blogapp.dtos.CommentResponseDto;
+import com.blogapp.dtos.PostResponseDto;
+import com.blogapp.dtos.RelatedPostResponseDto;
+import com.blogapp.dtos.TagResponseDto;
+import com.blogapp.models.Post;
+import com.blogapp.repositories.PostRepository;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Read-through cache of fully assembled {@link PostResponseDto}s keyed by post id.
+ *
+ * <p>The cache is bounded by the estimated JSON size of its entries and uses Caffeine's W-TinyLFU
+ * admission, so a scan over cold posts cannot push out the posts that are read all day. Writers
+ * publish post changes on the {@link CacheInvalidationBus}, which evicts the entry on every node
+ * after commit, so a concurrent reader cannot load and cache the pre-commit state. When {@code
+ * refresh-after} is set, an entry older than that is served while it reloads in the background.
+ *
+ * <p>Comment counters reach the post row in a fold after the write that evicted the entry, and
+ * view counts change without evicting anything, so the counts a response was assembled with go
+ * stale with nothing left to evict it. Every read
+ * therefore overlays the post's current counter columns, which are held for at most {@code
+ * counters-ttl}.
+ *
+ * <p>{@link #getAll} serves what is cached and assembles the rest together in a fixed number of
+ * queries. It does not cache what it loads: unlike a single load, a bulk load that races an
+ * invalidation could put back the pre-commit state.
+ *
+ * <p>Cached responses are shared between requests and must not be modified by callers.
+ */
+@Component
+public class PostResponseCache {
+
+  private static final int ENTRY_OVERHEAD = 256;
+  private static final int TAG_OVERHEAD = 32;
+  private static final int COMMENT_OVERHEAD = 128;
+
+  private final PostRepository postRepository;
+  private final PostResponseMapper postResponseMapper;
+  private final TransactionTemplate readOnly;
+  private final LoadingCache<Long, PostResponseDto> responsesById;
+  private final LoadingCache<Long, Counters> countersById;
+
+  public PostResponseCache(
+      PostRepository postRepository,
+      PostResponseMapper postResponseMapper,
+      PlatformTransactionManager transactionManager,
+      CacheInvalidationBus invalidationBus,
+      MeterRegistry meterRegistry,
+      @Value("${blogapp.posts.response-cache.maximum-weight:67108864}") long maximumWeight,
+      @Value("${blogapp.posts.response-cache.ttl:1h}") Duration ttl,
+      @Value("${blogapp.posts.response-cache.refresh-after:0s}") Duration refreshAfter,
+      @Value("${blogapp.posts.response-cache.counters-maximum-size:100000}")
+          long countersMaximumSize,
+      @Value("${blogapp.posts.response-cache.counters-ttl:5s}") Duration countersTtl) {
+    this.postRepository = postRepository;
+    this.postResponseMapper = postResponseMapper;
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    this.countersById =
+        Caffeine.newBuilder()
+            .maximumSize(countersMaximumSize)
+            .expireAfterWrite(countersTtl)
+            .build(
+                new CacheLoader<>() {
+                  @Override
+                  public Counters load(Long id) {
+                    return loadCounters(List.of(id)).get(id);
+                  }
+
+                  @Override
+                  public Map<Long, Counters> loadAll(Set<? extends Long> ids) {
+                    return loadCounters(List.copyOf(ids));
+                  }
+                });
+    Caffeine<Long, PostResponseDto> builder =
+        Caffeine.newBuilder()
+            .maximumWeight(maximumWeight)
+            .weigher((Long id, PostResponseDto response) -> weigh(response))
+            .expireAfterWrite(ttl)
+            .recordStats();
+    if (refreshAfter.isPositive()) {
+      builder.refreshAfterWrite(refreshAfter);
+    }
+    this.responsesById =
+        builder.build(
+            id ->
+                readOnly.execute(
+                    status ->
+                        postRepository
+                            .findById(id)
+                            .map(postResponseMapper::toPostResponse)
+                            .map(
+                                response -> {
+                                  countersById.put(id, Counters.of(response));
+                                  return response;
+                                })
+                            .orElse(null)));
+    CaffeineCacheMetrics.monitor(meterRegistry, responsesById, "posts");
+    invalidationBus.subscribe(CacheInvalidationBus.POST, this::invalidate, this::invalidateAll);
+    invalidationBus.subscribe(
+        CacheInvalidationBus.POST_RESPONSE, this::invalidate, this::invalidateAll);
+  }
+
+  /** The assembled response for the post, loading and caching it on a miss. */
+  public Optional<PostResponseDto> get(long postId) {
+    return Optional.ofNullable(responsesById.get(postId))
+        .map(response -> withCounters(response, countersById.get(postId)));
+  }
+
+  /**
+   * Responses for the posts that exist, keyed by id. Misses are loaded with three queries, for the
+   * posts with their authors and tags, their comments and their bodies.
+   */
+  public Map<Long, PostResponseDto> getAll(Collection<Long> postIds) {
+    Map<Long, PostResponseDto> responses = new HashMap<>(responsesById.getAllPresent(postIds));
+    Map<Long, Counters> counters = countersById.getAll(responses.keySet());
+    responses.replaceAll((id, response) -> withCounters(response, counters.get(id)));
+    List<Long> missing = postIds.stream().filter(id -> !responses.containsKey(id)).toList();
+    if (!missing.isEmpty()) {
+      readOnly.executeWithoutResult(
+          status -> {
+            List<Post> posts = postRepository.findAllWithAuthorAndTagsByIdIn(missing);
+            if (posts.isEmpty()) {
+              return;
+            }
+            postRepository.fetchCommentsByIdIn(missing);
+            Map<Long, String> contents = postRepository.getContents(missing);
+            for (Post post : posts) {
+              responses.put(
+                  post.getId(), postResponseMapper.toPostResponse(post, contents.get(post.getId())));
+            }
+          });
+    }
+    return responses;
+  }
+
+  public void invalidate(long postId) {
+    responsesById.invalidate(postId);
+    countersById.invalidate(postId);
+  }
+
+  public void invalidateAll() {
+    responsesById.invalidateAll();
+    countersById.invalidateAll();
+  }
+
+  private Map<Long, Counters> loadCounters(List<Long> postIds) {
+    Map<Long, Counters> counters = new HashMap<>();
+    for (Object[] row : postRepository.findCountersByIdIn(postIds)) {
+      counters.put(
+          (Long) row[0], new Counters((Long) row[1], (Instant) row[2], (Long) row[3]));
+    }
+    return counters;
+  }
+
+  /**
+   * The cached response with the given counters, as a copy when they differ since cached
+   * responses are shared. Unchanged when the post is gone, which evicts the response anyway.
+   */
+  private static PostResponseDto withCounters(PostResponseDto cached, Counters counters) {
+    if (counters == null || counters.matches(cached)) {
+      return cached;
+    }
+    PostResponseDto response = new PostResponseDto();
+    response.setId(cached.getId());
+    response.setTitle(cached.getTitle());
+    response.setExcerpt(cached.getExcerpt());
+    response.setContent(cached.getContent());
+    response.setTags(cached.getTags());
+    response.setAuthor(cached.getAuthor());
+    response.setComments(cached.getComments());
+    response.setCommentCount(counters.commentCount());
+    response.setLastCommentAt(counters.lastCommentAt());
+    response.setViewCount(counters.viewCount());
+    response.setRelatedPosts(cached.getRelatedPosts());
+    response.setPublishedAt(cached.getPublishedAt());
+    response.setPublished(cached.isPublished());
+    return response;
+  }
+
+  /** Approximate size of the response once serialized, in bytes. */
+  static int weigh(PostResponseDto response) {
+    long weight = ENTRY_OVERHEAD + length(response.getTitle()) + length(response.getExcerpt());
+    weight += length(response.getContent());
+    if (response.getAuthor() != null) {
+      weight += length(response.getAuthor().getName());
+    }
+    if (response.getTags() != null) {
+      for (TagResponseDto tag : response.getTags()) {
+        weight += TAG_OVERHEAD + length(tag.getTagName());
+      }
+    }
+    if (response.getRelatedPosts() != null) {
+      for (RelatedPostResponseDto related : response.getRelatedPosts()) {
+        weight += TAG_OVERHEAD + length(related.getTitle());
+      }
+    }
+    if (response.getComments() != null) {
+      for (CommentResponseDto comment : response.getComments()) {
+        weight +=
+            COMMENT_OVERHEAD
+                + length(comment.getCommentContent())
+                + length(comment.getCommentWriterName())
+                + length(comment.getEmail());
+      }
+    }
+    return (int) Math.min(weight, Integer.MAX_VALUE);
+  }
+
+  private static int length(String value) {
+    return value == null ? 0 : value.length();
+  }
+
+  private record Counters(long commentCount, Instant lastCommentAt, long viewCount) {
+
+    static Counters of(PostResponseDto response) {
+      return new Counters(
+          response.getCommentCount(), response.getLastCommentAt(), response.getViewCount());
+    }
+
+    boolean matches(PostResponseDto response) {
+      return response.getCommentCount() == commentCount
+          && Objects.equals(response.getLastCommentAt(), lastCommentAt)
+          && response.getViewCount() == viewCount;
+    }
+  }
+}
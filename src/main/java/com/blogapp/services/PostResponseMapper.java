@@ -0,0 +1,90 @@
+package com.blogapp.services;
+
+import com.blogapp.dtos.CommentResponseDto;
+import com.blogapp.dtos.PostResponseDto;
+import com.blogapp.dtos.RelatedPostResponseDto;
+import com.blogapp.dtos.TagResponseDto;
+import com.blogapp.dtos.UserResponseDto;
+import com.blogapp.models.Post;
+import com.blogapp.monitoring.RequestPhase;
+import com.blogapp.monitoring.RequestProfiler;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+
+/** Maps post entities, with their tags, author and comments, to API response DTOs. */
+@Component
+public class PostResponseMapper {
+
+  public PostResponseDto toPostResponse(Post post) {
+    PostResponseDto response = toResponse(post, true);
+    response.setContent(post.getContent());
+    return response;
+  }
+
+  /** Full response with a body loaded separately, so the entity's lazy body is never fetched. */
+  public PostResponseDto toPostResponse(Post post, String content) {
+    PostResponseDto response = toResponse(post, true);
+    response.setContent(content);
+    return response;
+  }
+
+  /**
+   * Listing variant: leaves {@code content} and {@code comments} unset so neither the lazily loaded
+   * body nor the comments are fetched; {@code commentCount} still says how many there are.
+   */
+  public PostResponseDto toPostSummary(Post post) {
+    return toResponse(post, false);
+  }
+
+  private PostResponseDto toResponse(Post post, boolean includeComments) {
+    long start = RequestProfiler.start();
+    try {
+      return mapPost(post, includeComments);
+    } finally {
+      RequestProfiler.stop(RequestPhase.MAPPING, start);
+    }
+  }
+
+  private PostResponseDto mapPost(Post post, boolean includeComments) {
+    PostResponseDto postResponseDto = new PostResponseDto();
+    postResponseDto.setId(post.getId());
+    postResponseDto.setTitle(post.getTitle());
+    postResponseDto.setExcerpt(post.getExcerpt());
+
+    List<TagResponseDto> tagDtos =
+        post.getTags().stream()
+            .map(tag -> new TagResponseDto(tag.getId(), tag.getName()))
+            .collect(Collectors.toList());
+    postResponseDto.setTags(tagDtos);
+    postResponseDto.setAuthor(new UserResponseDto(post.getAuthor().getName()));
+
+    if (includeComments) {
+      List<CommentResponseDto> commentDtos =
+          post.getComments().stream()
+              .map(
+                  c ->
+                      new CommentResponseDto(
+                          c.getId(),
+                          c.getCommentContent(),
+                          c.getCommentWriterName(),
+                          c.getEmail(),
+                          c.getCreatedAt()))
+              .collect(Collectors.toList());
+      postResponseDto.setComments(commentDtos);
+    }
+    postResponseDto.setCommentCount(post.getCommentCount());
+    postResponseDto.setLastCommentAt(post.getLastCommentAt());
+    postResponseDto.setViewCount(post.getViewCount());
+    postResponseDto.setRelatedPosts(
+        post.getRelatedPosts() == null
+            ? List.of()
+            : post.getRelatedPosts().stream()
+                .map(related -> new RelatedPostResponseDto(related.id(), related.title()))
+                .collect(Collectors.toList()));
+
+    postResponseDto.setPublishedAt(post.getPublishedAt());
+    postResponseDto.setPublished(post.isPublished());
+    return postResponseDto;
+  }
+}
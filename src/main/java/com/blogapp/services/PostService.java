@@ -6,18 +6,26 @@ import com.blogapp.exceptions.NoPostException;
 import com.blogapp.models.Post;
 import com.blogapp.models.Tag;
 import com.blogapp.models.User;
+import com.blogapp.monitoring.ExcerptEvent;
+import com.blogapp.monitoring.PostSearchEvent;
 import com.blogapp.repositories.PostRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -27,16 +35,34 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 /** Service layer handling core post operations. */
 @Service
+@Timed("blogapp.service")
 public class PostService {
+  /** {@link PostParamFilterDto#getSort()} value ranking posts by {@link TrendingPosts}. */
+  public static final String TRENDING = "trending";
+
   private final PostRepository postRepository;
-  private final CommentService commentService;
   private final TagService tagService;
+  private final CounterService counterService;
+  private final CacheInvalidationBus invalidationBus;
+  private final DomainEventOutbox outbox;
+  private final TrendingPosts trendingPosts;
+  private final MeterRegistry meterRegistry;
 
   public PostService(
-      PostRepository postRepository, @Lazy CommentService commentService, TagService tagService) {
+      PostRepository postRepository,
+      TagService tagService,
+      CounterService counterService,
+      CacheInvalidationBus invalidationBus,
+      DomainEventOutbox outbox,
+      TrendingPosts trendingPosts,
+      MeterRegistry meterRegistry) {
     this.postRepository = postRepository;
-    this.commentService = commentService;
     this.tagService = tagService;
+    this.counterService = counterService;
+    this.invalidationBus = invalidationBus;
+    this.outbox = outbox;
+    this.trendingPosts = trendingPosts;
+    this.meterRegistry = meterRegistry;
   }
 
   /** Fetch all distinct author names from posts. */
@@ -53,8 +79,55 @@ public class PostService {
       Instant toDate,
       Pageable pageable) {
     long tagCount = tagIds == null ? 0 : tagIds.size();
-    return postRepository.findAll(
-        authorNames, tagIds, searchString, fromDate, toDate, tagCount, pageable);
+    meterRegistry
+        .counter(
+            "blogapp.posts.searches",
+            "author", String.valueOf(authorNames != null),
+            "tag", String.valueOf(tagIds != null),
+            "text", String.valueOf(searchString != null && !searchString.isEmpty()),
+            "date", String.valueOf(fromDate != null || toDate != null))
+        .increment();
+    PostSearchEvent event = new PostSearchEvent();
+    event.begin();
+    Page<Post> page =
+        postRepository.findAll(
+            authorNames, tagIds, searchString, fromDate, toDate, tagCount, pageable);
+    event.end();
+    if (event.shouldCommit()) {
+      event.filterShape = filterShape(authorNames, tagIds, searchString, fromDate, toDate);
+      event.authorCount = authorNames == null ? 0 : authorNames.size();
+      event.tagCount = (int) tagCount;
+      event.searchTextLength = searchString == null ? 0 : searchString.length();
+      event.page = pageable.getPageNumber();
+      event.pageSize = pageable.getPageSize();
+      event.sort = pageable.getSort().toString();
+      event.resultCount = page.getNumberOfElements();
+      event.totalResults = page.getTotalElements();
+      event.commit();
+    }
+    return page;
+  }
+
+  private static String filterShape(
+      List<String> authorNames,
+      List<Long> tagIds,
+      String searchString,
+      Instant fromDate,
+      Instant toDate) {
+    List<String> filters = new ArrayList<>();
+    if (authorNames != null) {
+      filters.add("author");
+    }
+    if (tagIds != null) {
+      filters.add("tag");
+    }
+    if (searchString != null && !searchString.isEmpty()) {
+      filters.add("text");
+    }
+    if (fromDate != null || toDate != null) {
+      filters.add("date");
+    }
+    return filters.isEmpty() ? "none" : String.join("+", filters);
   }
 
   /** Retrieve a post by its identifier. */
@@ -62,6 +135,11 @@ public class PostService {
     return postRepository.findById(id);
   }
 
+  /** Bodies of the given posts in one query, keyed by post id. */
+  public Map<Long, String> getContents(Collection<Long> postIds) {
+    return postRepository.getContents(postIds);
+  }
+
   /** Prepare model attributes for a post view. */
   public String getPost(long id, Model model) {
     Post post =
@@ -80,9 +158,18 @@ public class PostService {
     return redirectIfKeywordChanged(postParamFilterDto, pageable, redirectAttributes);
   }
 
-  /** Fetch paginated posts honoring filter parameters. */
+  /** Fetch paginated posts honoring filter parameters; the trending order ignores filters. */
   public Page<Post> getAllPosts(Pageable pageable, PostParamFilterDto postParamFilterDto) {
     normalizeFilters(postParamFilterDto);
+    if (TRENDING.equals(postParamFilterDto.getSort())) {
+      postParamFilterDto.setAuthorNames(null);
+      postParamFilterDto.setTagIds(null);
+      postParamFilterDto.setSearch("");
+      postParamFilterDto.setOldSearch("");
+      postParamFilterDto.setFromDate(null);
+      postParamFilterDto.setToDate(null);
+      return getTrendingPosts(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
 
     List<String> sanitizedAuthors = sanitizeAuthors(postParamFilterDto.getAuthorNames());
     List<Long> sanitizedTagIds = sanitizeTagIds(postParamFilterDto.getTagIds());
@@ -112,6 +199,19 @@ public class PostService {
         sortedPageable);
   }
 
+  /** A page of the trending ranking, looked up in memory and loaded by id. */
+  public Page<Post> getTrendingPosts(Pageable pageable) {
+    List<Long> ranked = trendingPosts.topPostIds();
+    int from = (int) Math.min(pageable.getOffset(), ranked.size());
+    int to = Math.min(from + pageable.getPageSize(), ranked.size());
+    List<Long> ids = ranked.subList(from, to);
+    Map<Long, Post> postsById = new HashMap<>();
+    postRepository.findAllById(ids).forEach(post -> postsById.put(post.getId(), post));
+    // Posts deleted since the ranking was loaded are skipped.
+    List<Post> posts = ids.stream().map(postsById::get).filter(Objects::nonNull).toList();
+    return new PageImpl<>(posts, pageable, ranked.size());
+  }
+
   public Set<Tag> getAllTags() {
     return tagService.findAllTags();
   }
@@ -171,8 +271,11 @@ public class PostService {
     return "redirect:/";
   }
 
-  /** Persist a post, enriching it with excerpt, author and published timestamp if needed. */
-  public Post savePost(Post post) {
+  /**
+   * Persist a post, enriching it with excerpt, author and published timestamp if needed. New posts
+   * go through {@link #savePostWithTags}, which also announces them.
+   */
+  private Post savePost(Post post) {
     String excerpt = getExcerpt(post.getContent());
     post.setExcerpt(excerpt);
     if (post.getAuthor() == null) {
@@ -190,6 +293,19 @@ public class PostService {
     if (content == null || content.isEmpty()) {
       return "";
     }
+    ExcerptEvent event = new ExcerptEvent();
+    event.begin();
+    String excerpt = buildExcerpt(content);
+    event.end();
+    if (event.shouldCommit()) {
+      event.contentLength = content.length();
+      event.excerptLength = excerpt.length();
+      event.commit();
+    }
+    return excerpt;
+  }
+
+  private static String buildExcerpt(String content) {
     String[] sentences = content.split("(?<=[.!?])\\s+");
     int count = Math.min(2, sentences.length);
     StringBuilder excerpt = new StringBuilder();
@@ -202,18 +318,32 @@ public class PostService {
     return excerpt.toString().trim();
   }
 
-  /** Saves a post with its tags parsed from a comma-separated list. */
+  /**
+   * Saves a new post with its tags parsed from a comma-separated list, or none when the list is
+   * null, and publishes it on the invalidation bus and the outbox.
+   */
   @Transactional
   public Post savePostWithTags(Post post, String tagListString) {
-    Set<Tag> tags = tagService.saveTags(tagListString);
+    Set<Tag> tags = tagListString == null ? new HashSet<>() : tagService.saveTags(tagListString);
     for (Tag tag : tags) {
       tag.getPosts().add(post);
     }
     post.setTags(tags);
-    return savePost(post);
+    Post saved = savePost(post);
+    tags.forEach(tag -> counterService.tagAttached(tag.getId()));
+    invalidationBus.publish(CacheInvalidationBus.POST, saved.getId());
+    outbox.append(
+        DomainEventOutbox.POST,
+        saved.getId(),
+        DomainEventOutbox.POST_CREATED,
+        Map.of("authorId", saved.getAuthor().getId(), "tagIds", tagIds(tags)));
+    return saved;
   }
 
-  /** Update an existing post and reconcile its associated tags. */
+  /**
+   * Update an existing post and reconcile its associated tags. A null title, content or tag list
+   * leaves that part of the post as it is.
+   */
   @Transactional
   public void updatePostWithTags(
       Long postId, String title, String content, String tagListString, User newAuthor) {
@@ -222,12 +352,16 @@ public class PostService {
             .findById(postId)
             .orElseThrow(() -> new NoPostException("Post not found", postId));
 
-    Set<Tag> oldTags = existingPost.getTags();
+    Set<Tag> oldTags = new HashSet<>(existingPost.getTags());
+    Set<Tag> attachedTags = Set.of();
+    Set<Tag> detachedTags = Set.of();
 
     if (title != null) {
       existingPost.setTitle(title);
     }
-    if (content != null) {
+    // Setting the body re-encodes it and recomputes its search vector.
+    boolean contentChanged = content != null && !content.equals(existingPost.getContent());
+    if (contentChanged) {
       existingPost.setContent(content);
     }
     if (newAuthor != null) {
@@ -242,10 +376,27 @@ public class PostService {
         tag.getPosts().add(existingPost);
       }
 
-      tagService.deleteUnusedTags(oldTags);
+      detachedTags = new HashSet<>(oldTags);
+      detachedTags.removeAll(tags);
+      attachedTags = new HashSet<>(tags);
+      attachedTags.removeAll(oldTags);
+      attachedTags.forEach(tag -> counterService.tagAttached(tag.getId()));
+      detachedTags.forEach(tag -> counterService.tagDetached(tag.getId()));
+      tagService.deleteUnusedTags(detachedTags);
     }
 
     postRepository.save(existingPost);
+    invalidationBus.publish(CacheInvalidationBus.POST, postId);
+    outbox.append(
+        DomainEventOutbox.POST,
+        postId,
+        DomainEventOutbox.POST_UPDATED,
+        Map.of(
+            "authorId", existingPost.getAuthor().getId(),
+            "tagIds", tagIds(existingPost.getTags()),
+            "attachedTagIds", tagIds(attachedTags),
+            "detachedTagIds", tagIds(detachedTags),
+            "contentChanged", contentChanged));
   }
 
   /** Hard-delete a post and its comments. */
@@ -255,10 +406,21 @@ public class PostService {
         postRepository
             .findById(id)
             .orElseThrow(() -> new NoPostException("Post not found with id: " + id, id));
-    // Delete unused tags before deleting post
-    tagService.deleteUnusedTags(post.getTags());
+    Set<Tag> tags = new HashSet<>(post.getTags());
+    tags.forEach(tag -> counterService.tagDetached(tag.getId()));
     // Hard delete the post (cascade will auto-delete comments)
     postRepository.delete(post);
+    tagService.deleteUnusedTags(tags);
+    invalidationBus.publish(CacheInvalidationBus.POST, id);
+    outbox.append(
+        DomainEventOutbox.POST,
+        id,
+        DomainEventOutbox.POST_DELETED,
+        Map.of("authorId", post.getAuthor().getId(), "tagIds", tagIds(tags)));
+  }
+
+  private static List<Long> tagIds(Set<Tag> tags) {
+    return tags.stream().map(Tag::getId).sorted().toList();
   }
 
   private void normalizeFilters(PostParamFilterDto filters) {
@@ -271,7 +433,7 @@ public class PostService {
     if (filters.getDirection() == null || filters.getDirection().isBlank()) {
       filters.setDirection("DESC");
     }
-    filters.setSort("publishedAt");
+    filters.setSort(TRENDING.equalsIgnoreCase(filters.getSort()) ? TRENDING : "publishedAt");
   }
 
   private String redirectIfKeywordChanged(
@@ -0,0 +1,163 @@
+package com.blogapp.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts post views in memory and periodically adds them to {@code post.view_count}.
+ *
+ * <p>A view increments a per-post {@link LongAdder}, so readers of a hot post never contend on a
+ * lock or a row. Every {@code flush-interval} the accumulated deltas are written to {@code
+ * counter_delta} in one upsert that adds to whatever is already there, so nodes and restarts merge
+ * instead of overwriting each other; {@link CounterMaintenanceJob} folds them into the post rows.
+ * Views are flushed on shutdown and put back if a flush fails, so only a crash loses up to one
+ * interval.
+ *
+ * <p>Requests without a user agent or from an obvious bot or scripted client are not counted, nor
+ * is a second view of the same post from the same address and user agent within {@code
+ * dedupe-window} on this node. Counted views also feed {@link TrendingPosts}.
+ */
+@Component
+public class PostViewCounter {
+
+  private static final Logger log = LoggerFactory.getLogger(PostViewCounter.class);
+
+  private static final Pattern NOT_A_READER =
+      Pattern.compile(
+          "bot|crawl|spider|slurp|preview|monitor|headless|curl|wget|python|java-http-client"
+              + "|okhttp|go-http-client|apache-httpclient",
+          Pattern.CASE_INSENSITIVE);
+
+  private static final String FLUSH =
+      "INSERT INTO counter_delta (counter, entity_id, stripe, delta) "
+          + "SELECT ?, v.id, ?, v.delta FROM unnest(?::bigint[], ?::bigint[]) AS v(id, delta) "
+          + "ON CONFLICT (counter, entity_id, stripe) DO UPDATE SET "
+          + "delta = counter_delta.delta + EXCLUDED.delta";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TrendingPosts trendingPosts;
+  private final int stripes;
+  private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+  private final Cache<Long, Boolean> recentViews;
+  private final Counter counted;
+  private final Counter bots;
+  private final Counter duplicates;
+
+  /** Idle adders removed by the last flush; a view racing the removal may still land on one. */
+  private List<Map.Entry<Long, LongAdder>> retired = new ArrayList<>();
+
+  public PostViewCounter(
+      JdbcTemplate jdbcTemplate,
+      TrendingPosts trendingPosts,
+      MeterRegistry meterRegistry,
+      @Value("${blogapp.counters.stripes:8}") int stripes,
+      @Value("${blogapp.views.dedupe-window:30m}") Duration dedupeWindow,
+      @Value("${blogapp.views.dedupe-max-entries:100000}") long dedupeMaxEntries) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.trendingPosts = trendingPosts;
+    this.stripes = stripes;
+    this.recentViews =
+        Caffeine.newBuilder()
+            .expireAfterWrite(dedupeWindow)
+            .maximumSize(dedupeMaxEntries)
+            .build();
+    this.counted =
+        Counter.builder("blogapp.views")
+            .tag("outcome", "counted")
+            .description("Post views by outcome")
+            .register(meterRegistry);
+    this.bots = Counter.builder("blogapp.views").tag("outcome", "bot").register(meterRegistry);
+    this.duplicates =
+        Counter.builder("blogapp.views").tag("outcome", "duplicate").register(meterRegistry);
+  }
+
+  /** Count a view of the post unless it looks automated or repeats a recent one. */
+  public boolean record(long postId, String clientAddress, String userAgent) {
+    if (userAgent == null || userAgent.isBlank() || NOT_A_READER.matcher(userAgent).find()) {
+      bots.increment();
+      return false;
+    }
+    long viewer = ((long) String.valueOf(clientAddress).hashCode() << 32) ^ userAgent.hashCode();
+    long key = (viewer * 0x9E3779B97F4A7C15L) ^ postId;
+    if (recentViews.asMap().putIfAbsent(key, Boolean.TRUE) != null) {
+      duplicates.increment();
+      return false;
+    }
+    pending.computeIfAbsent(postId, id -> new LongAdder()).increment();
+    trendingPosts.recordView(postId);
+    counted.increment();
+    return true;
+  }
+
+  @Scheduled(
+      fixedDelayString = "${blogapp.views.flush-interval:5s}",
+      initialDelayString = "${blogapp.views.flush-interval:5s}")
+  public synchronized void flush() {
+    Map<Long, Long> deltas = new HashMap<>();
+    for (Map.Entry<Long, LongAdder> entry : retired) {
+      long views = entry.getValue().sum();
+      if (views > 0) {
+        deltas.merge(entry.getKey(), views, Long::sum);
+      }
+    }
+    List<Map.Entry<Long, LongAdder>> idle = new ArrayList<>();
+    for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+      LongAdder adder = entry.getValue();
+      // Subtract what was read rather than resetting, so concurrent increments are kept.
+      long views = adder.sum();
+      if (views > 0) {
+        adder.add(-views);
+        deltas.merge(entry.getKey(), views, Long::sum);
+      } else if (pending.remove(entry.getKey(), adder)) {
+        idle.add(Map.entry(entry.getKey(), adder));
+      }
+    }
+    retired = idle;
+    if (deltas.isEmpty()) {
+      return;
+    }
+
+    Long[] ids = deltas.keySet().toArray(Long[]::new);
+    Long[] views = new Long[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      views[i] = deltas.get(ids[i]);
+    }
+    try {
+      jdbcTemplate.update(
+          FLUSH,
+          ps -> {
+            ps.setString(1, CounterService.POST_VIEWS);
+            ps.setInt(2, ThreadLocalRandom.current().nextInt(stripes));
+            ps.setArray(3, ps.getConnection().createArrayOf("bigint", ids));
+            ps.setArray(4, ps.getConnection().createArrayOf("bigint", views));
+          });
+    } catch (DataAccessException e) {
+      deltas.forEach((id, count) -> pending.computeIfAbsent(id, key -> new LongAdder()).add(count));
+      log.warn("Flushing views for {} posts failed, keeping them for the next flush", ids.length, e);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flush();
+  }
+}
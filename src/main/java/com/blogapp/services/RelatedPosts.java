@@ -0,0 +1,265 @@
+package com.blogapp.services;
+
+import com.blogapp.models.RelatedPost;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Precomputes each post's most similar posts into {@code post.related_posts}.
+ *
+ * <p>Similarity is weighted Jaccard over tags: shared tag weight over combined tag weight, with a
+ * tag weighing {@code ln(1 + posts / posts with the tag)} so a rare shared tag counts for more.
+ * Candidates come from the tag-to-posts lists in {@code post_tag}; a tag on more than {@code
+ * max-tag-posts} posts is too common to suggest anything and is skipped there, though it still
+ * counts when scoring a candidate found through another tag. Only published posts are suggested.
+ *
+ * <p>When a post is created or updated through the outbox, it is recomputed together with the
+ * posts that share one of its uncommon tags and the posts whose list mentions it, which covers
+ * every list the change can enter, leave or retitle. Tag weights drift as counts change, so other
+ * lists are only as fresh as their last recomputation. Posts never computed are filled in by a
+ * backfill.
+ */
+@Component
+public class RelatedPosts implements OutboxHandler {
+
+  private static final Logger log = LoggerFactory.getLogger(RelatedPosts.class);
+  private static final int CHUNK_SIZE = 200;
+
+  private static final String TAGS_OF =
+      "SELECT pt.post_id, pt.tag_id, t.post_count FROM post_tag pt "
+          + "JOIN tag t ON t.id = pt.tag_id WHERE pt.post_id = ANY(?)";
+  private static final String POSTS_WITH =
+      "SELECT pt.tag_id, pt.post_id FROM post_tag pt JOIN post p ON p.id = pt.post_id "
+          + "WHERE pt.tag_id = ANY(?) AND p.is_published";
+  private static final String SHARING_UNCOMMON_TAG =
+      "SELECT DISTINCT pt.post_id FROM post_tag pt WHERE pt.tag_id IN ("
+          + "SELECT o.tag_id FROM post_tag o JOIN tag t ON t.id = o.tag_id "
+          + "WHERE o.post_id = ? AND t.post_count <= ?)";
+  private static final String MENTIONING =
+      "SELECT id FROM post WHERE related_posts @> jsonb_build_array(jsonb_build_object('id', ?))";
+  private static final String TITLES = "SELECT id, title FROM post WHERE id = ANY(?)";
+  private static final String POST_TOTAL =
+      "SELECT GREATEST(reltuples, 1) FROM pg_class WHERE oid = 'post'::regclass";
+  private static final String STORE =
+      "UPDATE post p SET related_posts = v.related::jsonb "
+          + "FROM unnest(?::bigint[], ?::text[]) AS v(id, related) "
+          + "WHERE p.id = v.id AND p.related_posts IS DISTINCT FROM v.related::jsonb "
+          + "RETURNING p.id";
+  private static final String NOT_COMPUTED =
+      "SELECT id FROM post WHERE related_posts IS NULL ORDER BY id LIMIT ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final CacheInvalidationBus invalidationBus;
+  private final int size;
+  private final long maxTagPosts;
+  private final int backfillBatchSize;
+
+  public RelatedPosts(
+      JdbcTemplate jdbcTemplate,
+      ObjectMapper objectMapper,
+      CacheInvalidationBus invalidationBus,
+      @Value("${blogapp.related.size:5}") int size,
+      @Value("${blogapp.related.max-tag-posts:1000}") long maxTagPosts,
+      @Value("${blogapp.related.backfill-batch-size:200}") int backfillBatchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+    this.invalidationBus = invalidationBus;
+    this.size = size;
+    this.maxTagPosts = maxTagPosts;
+    this.backfillBatchSize = backfillBatchSize;
+  }
+
+  @Override
+  public String name() {
+    return "related-posts";
+  }
+
+  @Override
+  public void handle(List<OutboxEvent> events) {
+    Set<Long> affected = new LinkedHashSet<>();
+    for (OutboxEvent event : events) {
+      if (!DomainEventOutbox.POST.equals(event.aggregateType())) {
+        continue;
+      }
+      long postId = event.aggregateId();
+      affected.addAll(jdbcTemplate.queryForList(MENTIONING, Long.class, postId));
+      if (!DomainEventOutbox.POST_DELETED.equals(event.eventType())) {
+        affected.add(postId);
+        affected.addAll(
+            jdbcTemplate.queryForList(SHARING_UNCOMMON_TAG, Long.class, postId, maxTagPosts));
+      }
+    }
+    recompute(affected);
+  }
+
+  /** Compute the lists of posts that have none yet, such as those that predate this index. */
+  @Scheduled(
+      fixedDelayString = "${blogapp.related.backfill-interval:1m}",
+      initialDelayString = "${blogapp.related.backfill-interval:1m}")
+  public void backfill() {
+    List<Long> postIds;
+    do {
+      postIds = jdbcTemplate.queryForList(NOT_COMPUTED, Long.class, backfillBatchSize);
+      recompute(postIds);
+    } while (postIds.size() == backfillBatchSize);
+  }
+
+  /** Recompute and store the related posts of the given posts. */
+  public void recompute(Collection<Long> postIds) {
+    List<Long> ids = new ArrayList<>(postIds);
+    int changed = 0;
+    for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+      changed += recomputeChunk(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+    }
+    if (changed > 0) {
+      log.debug("Related posts changed for {} of {} posts", changed, ids.size());
+    }
+  }
+
+  private int recomputeChunk(List<Long> postIds) {
+    double postTotal = jdbcTemplate.queryForObject(POST_TOTAL, Double.class);
+    Map<Long, Long> tagPostCounts = new HashMap<>();
+    Map<Long, Set<Long>> tagsByPost = tagsOf(postIds, tagPostCounts);
+
+    Long[] uncommonTags =
+        tagsByPost.values().stream()
+            .flatMap(Set::stream)
+            .distinct()
+            .filter(tagId -> tagPostCounts.get(tagId) <= maxTagPosts)
+            .toArray(Long[]::new);
+    Map<Long, List<Long>> postsByTag = new HashMap<>();
+    if (uncommonTags.length > 0) {
+      jdbcTemplate.query(
+          POSTS_WITH,
+          rs -> {
+            postsByTag.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getLong(2));
+          },
+          (Object) uncommonTags);
+    }
+    Set<Long> candidates = new HashSet<>();
+    postsByTag.values().forEach(candidates::addAll);
+    candidates.removeAll(tagsByPost.keySet());
+    Map<Long, Set<Long>> candidateTags = tagsOf(candidates, tagPostCounts);
+    candidateTags.putAll(tagsByPost);
+
+    Map<Long, Double> tagWeights = new HashMap<>();
+    tagPostCounts.forEach(
+        (tagId, count) -> tagWeights.put(tagId, Math.log1p(postTotal / Math.max(count, 1))));
+
+    Map<Long, List<Long>> relatedIds = new HashMap<>();
+    Set<Long> suggested = new HashSet<>();
+    for (Long postId : postIds) {
+      Set<Long> tags = tagsByPost.getOrDefault(postId, Set.of());
+      Set<Long> found = new HashSet<>();
+      tags.forEach(tagId -> found.addAll(postsByTag.getOrDefault(tagId, List.of())));
+      found.remove(postId);
+      double ownWeight = weight(tags, tagWeights);
+      Map<Long, Double> similarity = new HashMap<>();
+      for (Long candidate : found) {
+        Set<Long> other = candidateTags.getOrDefault(candidate, Set.of());
+        double shared = 0;
+        for (Long tagId : other) {
+          if (tags.contains(tagId)) {
+            shared += tagWeights.get(tagId);
+          }
+        }
+        double combined = ownWeight + weight(other, tagWeights) - shared;
+        similarity.put(candidate, combined > 0 ? shared / combined : 0);
+      }
+      // Most similar first, newer posts first among equals.
+      List<Long> top =
+          similarity.entrySet().stream()
+              .sorted(
+                  Map.Entry.<Long, Double>comparingByValue()
+                      .reversed()
+                      .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+              .limit(size)
+              .map(Map.Entry::getKey)
+              .toList();
+      relatedIds.put(postId, top);
+      suggested.addAll(top);
+    }
+    return store(relatedIds, titles(suggested));
+  }
+
+  private Map<Long, Set<Long>> tagsOf(Collection<Long> postIds, Map<Long, Long> tagPostCounts) {
+    Map<Long, Set<Long>> tagsByPost = new HashMap<>();
+    if (postIds.isEmpty()) {
+      return tagsByPost;
+    }
+    jdbcTemplate.query(
+        TAGS_OF,
+        rs -> {
+          tagsByPost.computeIfAbsent(rs.getLong(1), id -> new HashSet<>()).add(rs.getLong(2));
+          tagPostCounts.put(rs.getLong(2), rs.getLong(3));
+        },
+        (Object) postIds.toArray(Long[]::new));
+    return tagsByPost;
+  }
+
+  private static double weight(Set<Long> tags, Map<Long, Double> tagWeights) {
+    double weight = 0;
+    for (Long tagId : tags) {
+      weight += tagWeights.get(tagId);
+    }
+    return weight;
+  }
+
+  private Map<Long, String> titles(Set<Long> postIds) {
+    Map<Long, String> titles = new HashMap<>();
+    if (!postIds.isEmpty()) {
+      jdbcTemplate.query(
+          TITLES,
+          rs -> {
+            titles.put(rs.getLong(1), rs.getString(2));
+          },
+          (Object) postIds.toArray(Long[]::new));
+    }
+    return titles;
+  }
+
+  /** Write the lists that differ from what is stored and evict those posts' cached responses. */
+  private int store(Map<Long, List<Long>> relatedIds, Map<Long, String> titles) {
+    Long[] ids = relatedIds.keySet().toArray(Long[]::new);
+    String[] related = new String[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      List<RelatedPost> entries =
+          relatedIds.get(ids[i]).stream()
+              .filter(titles::containsKey)
+              .map(id -> new RelatedPost(id, titles.get(id)))
+              .toList();
+      try {
+        related[i] = objectMapper.writeValueAsString(entries);
+      } catch (JsonProcessingException e) {
+        throw new IllegalStateException("Could not serialize related posts of " + ids[i], e);
+      }
+    }
+    List<Long> changed =
+        jdbcTemplate.query(
+            con -> {
+              var ps = con.prepareStatement(STORE);
+              ps.setArray(1, con.createArrayOf("bigint", ids));
+              ps.setArray(2, con.createArrayOf("text", related));
+              return ps;
+            },
+            (rs, rowNum) -> rs.getLong(1));
+    invalidationBus.publishAll(CacheInvalidationBus.POST_RESPONSE, changed);
+    return changed.size();
+  }
+}
@@ -0,0 +1,194 @@
+package com.blogapp.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+import javax.sql.DataSource;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Sitemap of published posts: an index at {@code /sitemap.xml} and one shard per {@code
+ * shard-size} post ids at {@code /sitemaps/posts-{n}.xml}.
+ *
+ * <p>Shard {@code n} covers ids {@code ((n - 1) * shard-size, n * shard-size]}, so a post always
+ * stays in the same shard and a change makes only that shard stale; deleted and unpublished posts
+ * leave shards below the 50,000 URL limit rather than shifting the others. A shard is written
+ * straight from a server-side cursor over {@code (id, updated_at)} into a gzipped buffer, so
+ * generating one needs the same memory however many posts there are. Shards are cached compressed,
+ * bounded by {@code cache-maximum-weight}, and evicted through the {@link CacheInvalidationBus}
+ * when one of their post rows changes, not on comments or recomputed related posts; the next
+ * request regenerates them. A change the bus misses is picked up once the shard is {@code
+ * cache-ttl} old.
+ */
+@Component
+public class SitemapService {
+
+  private static final String SITEMAP_NS = "http://www.sitemaps.org/schemas/sitemap/0.9";
+  private static final int INDEX = 0;
+
+  private static final String SHARD =
+      "SELECT id, COALESCE(updated_at, published_at) FROM post "
+          + "WHERE is_published AND id > ? AND id <= ? ORDER BY id";
+
+  private final JdbcTemplate cursorTemplate;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readOnly;
+  private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
+  private final String baseUrl;
+  private final long shardSize;
+  private final LoadingCache<Integer, Sitemap> sitemaps;
+
+  /** Shard count the cached index was written for. */
+  private volatile long indexedShards;
+
+  public SitemapService(
+      DataSource dataSource,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      CacheInvalidationBus invalidationBus,
+      MeterRegistry meterRegistry,
+      @Value("${blogapp.base-url:http://localhost:8080}") String baseUrl,
+      @Value("${blogapp.sitemap.shard-size:50000}") long shardSize,
+      @Value("${blogapp.sitemap.fetch-size:1000}") int fetchSize,
+      @Value("${blogapp.sitemap.cache-maximum-weight:67108864}") long maximumWeight,
+      @Value("${blogapp.sitemap.cache-ttl:1h}") Duration ttl) {
+    this.jdbcTemplate = jdbcTemplate;
+    // PostgreSQL streams rows with a cursor only inside a transaction and with a fetch size set.
+    this.cursorTemplate = new JdbcTemplate(dataSource);
+    this.cursorTemplate.setFetchSize(fetchSize);
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    this.shardSize = shardSize;
+    this.sitemaps =
+        Caffeine.newBuilder()
+            .maximumWeight(maximumWeight)
+            .weigher((Integer shard, Sitemap sitemap) -> sitemap.gzipped().length)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build(shard -> shard == INDEX ? writeIndex() : writeShard(shard));
+    CaffeineCacheMetrics.monitor(meterRegistry, sitemaps, "sitemaps");
+    invalidationBus.subscribe(CacheInvalidationBus.POST, this::postChanged, sitemaps::invalidateAll);
+  }
+
+  public Sitemap index() {
+    return sitemaps.get(INDEX);
+  }
+
+  /** The shard, or null when it lies past the last post. */
+  public Sitemap shard(int shard) {
+    if (shard < 1 || shard > shardCount()) {
+      return null;
+    }
+    return sitemaps.get(shard);
+  }
+
+  private long shardCount() {
+    Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM post", Long.class);
+    return maxId == null ? 0 : (maxId + shardSize - 1) / shardSize;
+  }
+
+  private void postChanged(long postId) {
+    long shard = (postId + shardSize - 1) / shardSize;
+    sitemaps.invalidate((int) shard);
+    if (shard > indexedShards) {
+      sitemaps.invalidate(INDEX);
+    }
+  }
+
+  private Sitemap writeIndex() {
+    long shards = shardCount();
+    Sitemap index =
+        write(
+            "sitemapindex",
+            writer -> {
+              for (long shard = 1; shard <= shards; shard++) {
+                writer.writeStartElement("sitemap");
+                element(writer, "loc", baseUrl + "/sitemaps/posts-" + shard + ".xml");
+                writer.writeEndElement();
+              }
+            });
+    indexedShards = shards;
+    return index;
+  }
+
+  private Sitemap writeShard(int shard) {
+    long fromExclusive = (shard - 1) * shardSize;
+    return write(
+        "urlset",
+        writer ->
+            readOnly.executeWithoutResult(
+                status ->
+                    cursorTemplate.query(
+                        SHARD,
+                        rs -> {
+                          Timestamp lastModified = rs.getTimestamp(2);
+                          try {
+                            writer.writeStartElement("url");
+                            element(writer, "loc", baseUrl + "/posts/" + rs.getLong(1));
+                            if (lastModified != null) {
+                              element(
+                                  writer,
+                                  "lastmod",
+                                  DateTimeFormatter.ISO_INSTANT.format(lastModified.toInstant()));
+                            }
+                            writer.writeEndElement();
+                          } catch (XMLStreamException e) {
+                            throw new IllegalStateException("Could not write sitemap " + shard, e);
+                          }
+                        },
+                        fromExclusive,
+                        fromExclusive + shardSize)));
+  }
+
+  private Sitemap write(String root, Body body) {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(64 * 1024);
+    try (OutputStream out = new GZIPOutputStream(compressed)) {
+      XMLStreamWriter writer = xmlOutputFactory.createXMLStreamWriter(out, "UTF-8");
+      writer.writeStartDocument("UTF-8", "1.0");
+      writer.writeStartElement(root);
+      writer.writeDefaultNamespace(SITEMAP_NS);
+      body.write(writer);
+      writer.writeEndElement();
+      writer.writeEndDocument();
+      writer.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (XMLStreamException e) {
+      throw new IllegalStateException("Could not write sitemap " + root, e);
+    }
+    byte[] gzipped = compressed.toByteArray();
+    return new Sitemap(gzipped, '"' + DigestUtils.md5DigestAsHex(gzipped) + '"');
+  }
+
+  private static void element(XMLStreamWriter writer, String name, String text)
+      throws XMLStreamException {
+    writer.writeStartElement(name);
+    writer.writeCharacters(text);
+    writer.writeEndElement();
+  }
+
+  private interface Body {
+    void write(XMLStreamWriter writer) throws XMLStreamException;
+  }
+
+  /** A gzipped sitemap document and its ETag. */
+  public record Sitemap(byte[] gzipped, String etag) {}
+}
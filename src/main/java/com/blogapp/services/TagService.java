@@ -1,7 +1,9 @@
 package com.blogapp.services;
 
 import com.blogapp.models.Tag;
+import com.blogapp.monitoring.TagResolutionEvent;
 import com.blogapp.repositories.TagRepository;
+import io.micrometer.core.annotation.Timed;
 
 import jakarta.transaction.Transactional;
 
@@ -12,12 +14,20 @@ import java.util.TreeSet;
 import org.springframework.stereotype.Service;
 
 @Service
+@Timed("blogapp.service")
 public class TagService {
 
   private final TagRepository tagRepository;
+  private final CounterService counterService;
+  private final CacheInvalidationBus invalidationBus;
 
-  public TagService(TagRepository tagRepository) {
+  public TagService(
+      TagRepository tagRepository,
+      CounterService counterService,
+      CacheInvalidationBus invalidationBus) {
     this.tagRepository = tagRepository;
+    this.counterService = counterService;
+    this.invalidationBus = invalidationBus;
   }
 
   /**
@@ -29,11 +39,16 @@ public class TagService {
   public String[] extractTags(String tagListString) {
     String[] tagNames = tagListString.split(",");
     for (int i = 0; i < tagNames.length; i++) {
-      tagNames[i] = tagNames[i].trim().toLowerCase();
+      tagNames[i] = normalizeName(tagNames[i]);
     }
     return tagNames;
   }
 
+  /** The form a tag name is stored under, so lookups by a user-supplied name find it. */
+  public static String normalizeName(String tagName) {
+    return tagName.trim().toLowerCase();
+  }
+
   /**
    * Persists tags derived from the comma-separated string if they do not already exist.
    *
@@ -41,19 +56,31 @@ public class TagService {
    * @return a set containing saved tag entities
    */
   public Set<Tag> saveTags(String tagListString) {
+    TagResolutionEvent event = new TagResolutionEvent();
+    event.begin();
     String[] tagNamesArray = extractTags(tagListString);
     Set<Tag> savedTags = new HashSet<>();
+    int createdTags = 0;
 
     for (String tagName : tagNamesArray) {
       Tag tag = tagRepository.findByName(tagName);
       if (tag == null) {
         tag = new Tag();
         tag.setName(tagName);
-        savedTags.add(tagRepository.save(tag));
+        Tag saved = tagRepository.save(tag);
+        invalidationBus.publish(CacheInvalidationBus.TAG, saved.getId());
+        savedTags.add(saved);
+        createdTags++;
       } else {
         savedTags.add(tag);
       }
     }
+    event.end();
+    if (event.shouldCommit()) {
+      event.tagCount = tagNamesArray.length;
+      event.createdTags = createdTags;
+      event.commit();
+    }
     return savedTags;
   }
 
@@ -66,12 +93,14 @@ public class TagService {
     return new TreeSet<>(tagRepository.findAll());
   }
 
+  /** Delete the given tags that no post carries any more, judged by the tag post counter. */
   @Transactional
   public void deleteUnusedTags(Set<Tag> tags) {
     for (Tag tag : tags) {
-      long count = tagRepository.countPostsByTagId(tag.getId());
-      if (count == 0) {
+      long count = counterService.postCount(tag.getId());
+      if (count <= 0) {
         tagRepository.delete(tag);
+        invalidationBus.publish(CacheInvalidationBus.TAG, tag.getId());
       }
     }
   }
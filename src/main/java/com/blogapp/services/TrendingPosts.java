@@ -0,0 +1,226 @@
+package com.blogapp.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ranks posts by exponentially decayed views and comments, with a half-life of {@code
+ * blogapp.trending.half-life}.
+ *
+ * <p>Events add their weight to a per-post {@link DoubleAdder}, scaled relative to the current
+ * epoch, which rolls forward on every flush so the scale factor stays small. Each flush converts
+ * the accumulated scores to time-independent rank keys (see {@code V9__post_trending.sql}) and
+ * merges them into {@code post_trending} in one upsert, so every node contributes to the same
+ * ranking. It then reloads the top {@code top-k} ids through the rank key index, and listings
+ * page through that in-memory list.
+ *
+ * <p>Views arrive from {@link PostViewCounter}; comments and deletions arrive through the outbox.
+ * A replayed outbox counts its comments again.
+ */
+@Component
+public class TrendingPosts implements OutboxHandler {
+
+  private static final Logger log = LoggerFactory.getLogger(TrendingPosts.class);
+
+  private static final String MERGE =
+      "INSERT INTO post_trending AS t (post_id, rank_key) "
+          + "SELECT v.id, v.rank_key FROM unnest(?::bigint[], ?::float8[]) AS v(id, rank_key) "
+          + "ON CONFLICT (post_id) DO UPDATE SET "
+          + "rank_key = GREATEST(t.rank_key, EXCLUDED.rank_key) "
+          + "+ ln(1 + exp(-abs(t.rank_key - EXCLUDED.rank_key))), "
+          + "updated_at = now()";
+  private static final String TOP =
+      "SELECT post_id FROM post_trending ORDER BY rank_key DESC LIMIT ?";
+  private static final String PRUNE = "DELETE FROM post_trending WHERE rank_key < ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final double decayPerMilli;
+  private final double viewWeight;
+  private final double commentWeight;
+  private final int topK;
+  private final double pruneBelow;
+
+  private volatile Generation current = new Generation(System.currentTimeMillis());
+  private volatile List<Long> top = List.of();
+
+  /** The generation read by the last flush and what was read from it, for late increments. */
+  private Generation retired;
+  private Map<Long, Double> retiredRead = Map.of();
+
+  public TrendingPosts(
+      JdbcTemplate jdbcTemplate,
+      ObjectMapper objectMapper,
+      @Value("${blogapp.trending.half-life:6h}") Duration halfLife,
+      @Value("${blogapp.trending.view-weight:1}") double viewWeight,
+      @Value("${blogapp.trending.comment-weight:5}") double commentWeight,
+      @Value("${blogapp.trending.top-k:500}") int topK,
+      @Value("${blogapp.trending.prune-below:0.01}") double pruneBelow) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+    this.decayPerMilli = Math.log(2) / halfLife.toMillis();
+    this.viewWeight = viewWeight;
+    this.commentWeight = commentWeight;
+    this.topK = topK;
+    this.pruneBelow = pruneBelow;
+  }
+
+  /** Ids of the highest scoring posts, best first, as of the last flush. */
+  public List<Long> topPostIds() {
+    return top;
+  }
+
+  public void recordView(long postId) {
+    add(postId, viewWeight, System.currentTimeMillis());
+  }
+
+  public void recordComment(long postId, Instant createdAt) {
+    add(postId, commentWeight, createdAt.toEpochMilli());
+  }
+
+  private void add(long postId, double weight, long atMillis) {
+    add(current, postId, weight, atMillis);
+  }
+
+  /** Add to {@code generation}, which a flush may already have read; a later flush finds it. */
+  void add(Generation generation, long postId, double weight, long atMillis) {
+    generation
+        .scores()
+        .computeIfAbsent(postId, id -> new DoubleAdder())
+        .add(weight * Math.exp(decayPerMilli * (atMillis - generation.epochMillis())));
+  }
+
+  Generation currentGeneration() {
+    return current;
+  }
+
+  @Override
+  public String name() {
+    return "trending";
+  }
+
+  @Override
+  public void handle(List<OutboxEvent> events) {
+    for (OutboxEvent event : events) {
+      switch (event.eventType()) {
+        case DomainEventOutbox.COMMENT_ADDED ->
+            recordComment(payload(event).path("postId").asLong(), event.createdAt());
+        case DomainEventOutbox.POST_DELETED ->
+            jdbcTemplate.update("DELETE FROM post_trending WHERE post_id = ?", event.aggregateId());
+        default -> {}
+      }
+    }
+  }
+
+  private JsonNode payload(OutboxEvent event) {
+    try {
+      return objectMapper.readTree(event.payload());
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unreadable payload of outbox event " + event.id(), e);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${blogapp.trending.flush-interval:10s}")
+  public synchronized void flush() {
+    Generation previous = current;
+    current = new Generation(System.currentTimeMillis());
+
+    Map<Long, Double> rankKeys = new HashMap<>();
+    if (retired != null) {
+      // Increments that reached the older generation after the last flush had read it.
+      retired
+          .scores()
+          .forEach(
+              (postId, adder) -> {
+                double late = adder.sum() - retiredRead.getOrDefault(postId, 0.0);
+                if (late > 1e-9) {
+                  accumulate(rankKeys, postId, late, retired.epochMillis());
+                }
+              });
+    }
+    Map<Long, Double> read = new HashMap<>();
+    previous
+        .scores()
+        .forEach(
+            (postId, adder) -> {
+              double score = adder.sum();
+              read.put(postId, score);
+              accumulate(rankKeys, postId, score, previous.epochMillis());
+            });
+    retired = previous;
+    retiredRead = read;
+
+    if (!rankKeys.isEmpty()) {
+      try {
+        merge(rankKeys);
+      } catch (DataAccessException e) {
+        // Put the scores back at the current epoch so the next flush retries them.
+        Generation generation = current;
+        rankKeys.forEach(
+            (postId, rankKey) ->
+                generation
+                    .scores()
+                    .computeIfAbsent(postId, id -> new DoubleAdder())
+                    .add(Math.exp(rankKey - decayPerMilli * generation.epochMillis())));
+        log.warn("Flushing trending scores for {} posts failed", rankKeys.size(), e);
+      }
+    }
+    try {
+      jdbcTemplate.update(
+          PRUNE, decayPerMilli * System.currentTimeMillis() + Math.log(pruneBelow));
+      top = List.copyOf(jdbcTemplate.queryForList(TOP, Long.class, topK));
+    } catch (DataAccessException e) {
+      // The merge has committed on its own, so retrying its scores would count them twice; the
+      // next flush prunes and reloads the ranking again.
+      log.warn("Reloading the trending ranking failed", e);
+    }
+  }
+
+  private void merge(Map<Long, Double> rankKeys) {
+    Long[] ids = rankKeys.keySet().toArray(Long[]::new);
+    Double[] keys = new Double[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      keys[i] = rankKeys.get(ids[i]);
+    }
+    jdbcTemplate.update(
+        MERGE,
+        ps -> {
+          ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+          ps.setArray(2, ps.getConnection().createArrayOf("float8", keys));
+        });
+  }
+
+  /** Add a score, relative to {@code epochMillis}, to the post's rank key as a log-sum-exp. */
+  private void accumulate(
+      Map<Long, Double> rankKeys, long postId, double score, long epochMillis) {
+    if (score <= 0) {
+      return;
+    }
+    double rankKey = Math.log(score) + decayPerMilli * epochMillis;
+    rankKeys.merge(
+        postId,
+        rankKey,
+        (a, b) -> Math.max(a, b) + Math.log1p(Math.exp(-Math.abs(a - b))));
+  }
+
+  record Generation(long epochMillis, Map<Long, DoubleAdder> scores) {
+    Generation(long epochMillis) {
+      this(epochMillis, new ConcurrentHashMap<>());
+    }
+  }
+}
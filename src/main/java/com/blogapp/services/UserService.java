@@ -3,26 +3,41 @@ package com.blogapp.services;
 import com.blogapp.models.Role;
 import com.blogapp.models.User;
 import com.blogapp.repositories.UserRepository;
+import com.blogapp.security.BoundedPasswordEncoder;
+import com.blogapp.security.LoginRateLimiter;
+import com.blogapp.security.UserCache;
+import io.micrometer.core.annotation.Timed;
 
 import java.util.List;
 import java.util.Optional;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
+@Timed("blogapp.service")
 public class UserService {
   private final UserRepository userRepository;
-  private final BCryptPasswordEncoder bCryptPasswordEncoder;
+  private final BoundedPasswordEncoder passwordEncoder;
+  private final UserCache userCache;
+  private final LoginRateLimiter loginRateLimiter;
+  private final CacheInvalidationBus invalidationBus;
 
-  public UserService(UserRepository userRepository, BCryptPasswordEncoder bCryptPasswordEncoder) {
+  public UserService(
+      UserRepository userRepository,
+      BoundedPasswordEncoder passwordEncoder,
+      UserCache userCache,
+      LoginRateLimiter loginRateLimiter,
+      CacheInvalidationBus invalidationBus) {
     this.userRepository = userRepository;
-    this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+    this.passwordEncoder = passwordEncoder;
+    this.userCache = userCache;
+    this.loginRateLimiter = loginRateLimiter;
+    this.invalidationBus = invalidationBus;
   }
 
   public User register(
       String name, String email, String password, String confirmPassword, Role userRole) {
-    String normalizedEmail = email == null ? null : email.trim().toLowerCase();
+    String normalizedEmail = UserCache.normalizeEmail(email);
     Optional<User> optionalUser = userRepository.findByEmail(normalizedEmail);
     if (optionalUser.isPresent()) {
       return optionalUser.get();
@@ -36,25 +51,31 @@ public class UserService {
     User user = new User();
     user.setName(name);
     user.setEmail(normalizedEmail);
-    user.setPassword(bCryptPasswordEncoder.encode(password));
+    user.setPassword(passwordEncoder.encode(password));
     user.setUserRole(userRole);
-    return userRepository.save(user);
+    return saveUser(user);
   }
 
   public User login(String email, String passedPassword) {
-    String normalizedEmail = email == null ? null : email.trim().toLowerCase();
+    loginRateLimiter.checkAccount(email);
     User user =
-        userRepository
-            .findByEmail(normalizedEmail)
+        userCache
+            .findByEmail(email)
             .orElseThrow(() -> new IllegalArgumentException("Invalid email or password."));
 
-    if (bCryptPasswordEncoder.matches(passedPassword, user.getPassword())) {
+    if (passwordEncoder.matches(passedPassword, user.getPassword())) {
       return user;
     }
 
     if (user.getPassword().equals(passedPassword)) {
-      user.setPassword(bCryptPasswordEncoder.encode(passedPassword));
-      return userRepository.save(user);
+      // The cached user is shared between threads, so the rehash is written to a fresh copy and
+      // the invalidation after saving replaces the cached one.
+      User fresh =
+          userRepository
+              .findById(user.getId())
+              .orElseThrow(() -> new IllegalArgumentException("Invalid email or password."));
+      fresh.setPassword(passwordEncoder.encode(passedPassword));
+      return saveUser(fresh);
     }
 
     throw new IllegalArgumentException("Invalid email or password.");
@@ -67,4 +88,11 @@ public class UserService {
   public List<User> findAllUsers() {
     return userRepository.findAll();
   }
+
+  /** Persist a user and evict its cached copy on every node so password or role changes apply. */
+  private User saveUser(User user) {
+    User saved = userRepository.save(user);
+    invalidationBus.publish(CacheInvalidationBus.USER, saved.getId());
+    return saved;
+  }
 }
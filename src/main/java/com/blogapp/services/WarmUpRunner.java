@@ -0,0 +1,119 @@
+package com.blogapp.services;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Requests the home page, the post listing API and the most commented posts over loopback before
+ * the application reports ready.
+ *
+ * <p>Spring Boot only moves readiness to {@code ACCEPTING_TRAFFIC} once every runner has returned,
+ * so {@code /actuator/health/readiness} stays down until templates, query plans, the post
+ * response cache and the JIT have seen the hot paths. Failures are logged and never block startup
+ * beyond {@code blogapp.warmup.timeout}.
+ */
+@Component
+@ConditionalOnProperty(name = "blogapp.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpRunner implements ApplicationRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+
+  private static final String HOTTEST_POSTS =
+      "SELECT id FROM post WHERE is_published "
+          + "ORDER BY comment_count DESC, published_at DESC LIMIT ?";
+
+  private final Environment environment;
+  private final JdbcTemplate jdbcTemplate;
+  private final int hotPosts;
+  private final int iterations;
+  private final Duration timeout;
+
+  public WarmUpRunner(
+      Environment environment,
+      JdbcTemplate jdbcTemplate,
+      @Value("${blogapp.warmup.hot-posts:20}") int hotPosts,
+      @Value("${blogapp.warmup.iterations:3}") int iterations,
+      @Value("${blogapp.warmup.timeout:30s}") Duration timeout) {
+    this.environment = environment;
+    this.jdbcTemplate = jdbcTemplate;
+    this.hotPosts = hotPosts;
+    this.iterations = iterations;
+    this.timeout = timeout;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    String port = environment.getProperty("local.server.port");
+    if (port == null) {
+      return;
+    }
+    long start = System.nanoTime();
+    long deadline = start + timeout.toNanos();
+    List<String> paths = new ArrayList<>(List.of("/", "/api/posts"));
+    try {
+      for (Long id : jdbcTemplate.queryForList(HOTTEST_POSTS, Long.class, hotPosts)) {
+        paths.add("/posts/" + id);
+        paths.add("/api/posts/" + id);
+      }
+    } catch (RuntimeException e) {
+      log.warn("Warm-up could not list the hottest posts", e);
+    }
+
+    // One cookie jar, so the anonymous session created by the first page is reused.
+    HttpClient client =
+        HttpClient.newBuilder()
+            .cookieHandler(new CookieManager())
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    int requests = 0;
+    int failures = 0;
+    warmUp:
+    for (int iteration = 0; iteration < iterations; iteration++) {
+      for (String path : paths) {
+        if (System.nanoTime() > deadline || Thread.currentThread().isInterrupted()) {
+          log.warn("Warm-up stopped after {} of {} requests", requests, iterations * paths.size());
+          break warmUp;
+        }
+        requests++;
+        if (!succeeds(client, "http://localhost:" + port + path)) {
+          failures++;
+        }
+      }
+    }
+    log.info(
+        "Warm-up sent {} requests ({} failed) in {} ms",
+        requests,
+        failures,
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  private static boolean succeeds(HttpClient client, String url) {
+    try {
+      HttpRequest request =
+          HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(5)).GET().build();
+      int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+      return status < 400;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (Exception e) {
+      log.debug("Warm-up request to {} failed", url, e);
+      return false;
+    }
+  }
+}
@@ -0,0 +1,10 @@
+-- Related posts, precomputed by RelatedPosts as a JSON array of {"id", "title"} so a post page
+-- renders them from the post row. NULL means not computed yet; the backfill picks those up.
+-- The GIN index finds the posts whose list mentions a changed or deleted post, and the partial
+-- index lets the backfill find the posts still to compute without walking the primary key.
+
+ALTER TABLE post ADD COLUMN IF NOT EXISTS related_posts JSONB;
+
+CREATE INDEX IF NOT EXISTS post_related_posts_idx ON post USING gin (related_posts jsonb_path_ops);
+
+CREATE INDEX IF NOT EXISTS post_related_not_computed_idx ON post (id) WHERE related_posts IS NULL;
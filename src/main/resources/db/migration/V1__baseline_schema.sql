@@ -0,0 +1,58 @@
+-- Baseline: the schema Hibernate's ddl-auto=update had produced. Every statement is guarded so
+-- that databases created before migrations were introduced adopt this version unchanged.
+
+CREATE TABLE IF NOT EXISTS "user" (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    user_role VARCHAR(255) NOT NULL,
+    CONSTRAINT user_pk PRIMARY KEY (id),
+    CONSTRAINT user_email_uk UNIQUE (email),
+    CONSTRAINT user_role_ck CHECK (user_role IN ('ADMIN', 'AUTHOR'))
+);
+
+CREATE TABLE IF NOT EXISTS tag (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    created_at TIMESTAMP(6) WITH TIME ZONE,
+    updated_at TIMESTAMP(6) WITH TIME ZONE,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT tag_pk PRIMARY KEY (id),
+    CONSTRAINT tag_name_uk UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS post (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    created_at TIMESTAMP(6) WITH TIME ZONE,
+    updated_at TIMESTAMP(6) WITH TIME ZONE,
+    title VARCHAR(255) NOT NULL,
+    excerpt TEXT,
+    content TEXT NOT NULL,
+    author_id BIGINT NOT NULL,
+    published_at TIMESTAMP(6) WITH TIME ZONE,
+    is_published BOOLEAN NOT NULL,
+    CONSTRAINT post_pk PRIMARY KEY (id),
+    CONSTRAINT post_author_fk FOREIGN KEY (author_id) REFERENCES "user" (id)
+);
+
+CREATE TABLE IF NOT EXISTS post_tag (
+    post_id BIGINT NOT NULL,
+    tag_id BIGINT NOT NULL,
+    CONSTRAINT post_tag_pk PRIMARY KEY (post_id, tag_id),
+    CONSTRAINT post_tag_post_fk FOREIGN KEY (post_id) REFERENCES post (id),
+    CONSTRAINT post_tag_tag_fk FOREIGN KEY (tag_id) REFERENCES tag (id)
+);
+
+CREATE TABLE IF NOT EXISTS comment (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    created_at TIMESTAMP(6) WITH TIME ZONE,
+    updated_at TIMESTAMP(6) WITH TIME ZONE,
+    comment_writer_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    comment_content VARCHAR(255) NOT NULL,
+    post_id BIGINT NOT NULL,
+    user_id BIGINT,
+    CONSTRAINT comment_pk PRIMARY KEY (id),
+    CONSTRAINT comment_post_fk FOREIGN KEY (post_id) REFERENCES post (id),
+    CONSTRAINT comment_user_fk FOREIGN KEY (user_id) REFERENCES "user" (id)
+);
@@ -0,0 +1,7 @@
+-- Formerly phase2-drop-soft-delete-columns.sql, run by hand once the soft-delete code was gone.
+-- Guarded so it is a no-op on databases where it already ran or that never had the columns.
+
+ALTER TABLE post DROP COLUMN IF EXISTS is_deleted;
+ALTER TABLE comment DROP COLUMN IF EXISTS is_deleted;
+ALTER TABLE tag DROP COLUMN IF EXISTS is_deleted;
+ALTER TABLE "user" DROP COLUMN IF EXISTS is_deleted;
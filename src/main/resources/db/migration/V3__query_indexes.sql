@@ -0,0 +1,30 @@
+-- Indexes for the foreign keys and filters the repositories use. Built concurrently so that
+-- applying them to a populated database does not block writes; Flyway runs this script outside
+-- a transaction for that reason.
+
+-- Listing pages and date-range filters, which include unpublished posts.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS post_published_at_idx
+    ON post (published_at DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS post_author_id_idx
+    ON post (author_id);
+
+-- The primary key leads with post_id; this one serves tag filters and per-tag counts from the
+-- index alone.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS post_tag_tag_id_post_id_idx
+    ON post_tag (tag_id, post_id);
+
+-- Comments are read per post; created_at second lets per-post listings come back in order.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS comment_post_id_created_at_idx
+    ON comment (post_id, created_at);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS comment_created_at_idx
+    ON comment (created_at);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS comment_user_id_idx
+    ON comment (user_id)
+    WHERE user_id IS NOT NULL;
+
+-- Author-name filter on the post search joins through here.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS user_name_idx
+    ON "user" (name);
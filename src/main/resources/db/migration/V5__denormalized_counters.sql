@@ -0,0 +1,39 @@
+-- Denormalized counters. Writers never touch these columns directly: they add deltas to one of
+-- several stripes in counter_delta, and a background job folds the stripes into the owning row.
+
+ALTER TABLE post ADD COLUMN IF NOT EXISTS comment_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE post ADD COLUMN IF NOT EXISTS last_comment_at TIMESTAMP(6) WITH TIME ZONE;
+ALTER TABLE tag ADD COLUMN IF NOT EXISTS post_count BIGINT NOT NULL DEFAULT 0;
+
+-- The counter columns are not indexed, so folds can be HOT updates when the page has room.
+ALTER TABLE post SET (fillfactor = 90);
+ALTER TABLE tag SET (fillfactor = 90);
+
+CREATE TABLE IF NOT EXISTS counter_delta (
+    counter VARCHAR(32) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    stripe SMALLINT NOT NULL,
+    delta BIGINT NOT NULL,
+    last_at TIMESTAMP(6) WITH TIME ZONE,
+    decremented BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT counter_delta_pk PRIMARY KEY (counter, entity_id, stripe)
+);
+
+UPDATE post p
+SET comment_count = c.comment_count,
+    last_comment_at = c.last_comment_at
+FROM (
+    SELECT post_id, COUNT(*) AS comment_count, MAX(created_at) AS last_comment_at
+    FROM comment
+    GROUP BY post_id
+) c
+WHERE p.id = c.post_id;
+
+UPDATE tag t
+SET post_count = pt.post_count
+FROM (
+    SELECT tag_id, COUNT(*) AS post_count
+    FROM post_tag
+    GROUP BY tag_id
+) pt
+WHERE t.id = pt.tag_id;
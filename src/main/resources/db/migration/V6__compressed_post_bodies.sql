@@ -0,0 +1,40 @@
+-- Post bodies move to content_encoded, a BYTEA in PostBodyCodec's format, added next to the
+-- plain-text content column. Converting content in place would rewrite the whole table under an
+-- ACCESS EXCLUSIVE lock; adding nullable columns only touches the catalog. New and edited bodies
+-- are written to the new columns and clear content; PostBodyCompressionJob moves the remaining
+-- rows in batches. Reads prefer content_encoded and fall back to content, so a later migration can
+-- drop content once the job reports that no row uses it.
+--
+-- A body stored compressed cannot be matched with LIKE, so search uses a tsvector built from the
+-- plain text, written together with content_encoded. Positions are kept so that a search can be
+-- matched as a phrase.
+--
+-- The application already compresses large bodies; EXTERNAL skips a second, futile pglz pass.
+ALTER TABLE post
+    ADD COLUMN IF NOT EXISTS content_encoded BYTEA,
+    ADD COLUMN IF NOT EXISTS content_tsv TSVECTOR,
+    ALTER COLUMN content_encoded SET STORAGE EXTERNAL,
+    ALTER COLUMN content DROP NOT NULL;
+
+-- The closest a tsquery gets to the former substring match: the words of the search in order and
+-- adjacent, the last one as a prefix, so 'postgr' and 'garbage coll' still match while a word
+-- cannot start mid-word. NULL when the search has no words.
+CREATE OR REPLACE FUNCTION post_body_query(search TEXT)
+    RETURNS TSQUERY
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE
+AS $$
+    SELECT to_tsquery('simple', string_agg(term, ' <-> ' ORDER BY n))
+    FROM (SELECT quote_literal(word) || CASE WHEN n = max(n) OVER () THEN ':*' ELSE '' END AS term, n
+          FROM regexp_split_to_table(lower(search), '[^[:alnum:]]+') WITH ORDINALITY AS words(word, n)
+          WHERE word <> '') terms
+$$;
+
+-- Rows not moved yet have no tsvector and are matched against the plain-text column instead.
+CREATE OR REPLACE FUNCTION post_body_matches(body TSVECTOR, legacy_body TEXT, search TEXT)
+    RETURNS BOOLEAN
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE
+AS $$
+    SELECT CASE WHEN search = '' THEN FALSE
+                WHEN body IS NULL THEN strpos(lower(legacy_body), lower(search)) > 0
+                ELSE coalesce(body @@ post_body_query(search), FALSE) END
+$$;
@@ -0,0 +1,25 @@
+-- Transactional outbox. Write paths append domain events in their own transaction; OutboxRelay
+-- hands them to in-process handlers, each of which records how far it has read in outbox_offset.
+--
+-- Event ids come from a sequence and can commit out of order, so handlers read in (tx_id, id)
+-- order and only up to the oldest transaction still running: no event can later appear before
+-- one that has already been read.
+
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id BIGSERIAL PRIMARY KEY,
+    tx_id BIGINT NOT NULL DEFAULT pg_current_xact_id()::text::bigint,
+    aggregate_type VARCHAR(32) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload JSONB,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS outbox_event_tx_id_id_idx ON outbox_event (tx_id, id);
+
+CREATE TABLE IF NOT EXISTS outbox_offset (
+    handler VARCHAR(64) PRIMARY KEY,
+    last_tx_id BIGINT NOT NULL DEFAULT 0,
+    last_event_id BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now()
+);
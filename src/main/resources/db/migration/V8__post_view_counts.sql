@@ -0,0 +1,5 @@
+-- Post view counts. PostViewCounter accumulates views in memory and flushes them as deltas into
+-- counter_delta; CounterMaintenanceJob folds them into this column like the other counters.
+-- Unlike those, views cannot be recounted from another table, so the nightly repair keeps them.
+
+ALTER TABLE post ADD COLUMN IF NOT EXISTS view_count BIGINT NOT NULL DEFAULT 0;
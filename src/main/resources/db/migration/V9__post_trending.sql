@@ -0,0 +1,12 @@
+-- Trending scores. A post's score decays exponentially, so it is stored as
+-- rank_key = ln(score at t) + lambda * t, which does not change as time passes: the score at any
+-- later time T is exp(rank_key - lambda * T). Ordering by rank_key orders by current score, adding
+-- a contribution is a log-sum-exp of two keys, and nothing ever has to be rescaled.
+
+CREATE TABLE IF NOT EXISTS post_trending (
+    post_id BIGINT PRIMARY KEY,
+    rank_key DOUBLE PRECISION NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS post_trending_rank_key_idx ON post_trending (rank_key DESC);
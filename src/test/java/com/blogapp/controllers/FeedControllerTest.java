@@ -0,0 +1,133 @@
+package com.blogapp.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.blogapp.loadtest.LoadTestDatabase;
+import com.blogapp.loadtest.LoadTestSettings;
+import com.blogapp.models.Role;
+import com.blogapp.models.User;
+import com.blogapp.repositories.UserRepository;
+import com.blogapp.security.CustomUserDetails;
+import com.blogapp.support.TestDatabases;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestExecutionListeners.MergeMode;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Feeds pick up posts created through the REST API, with or without tags, and tag feeds are found
+ * by the name as a user would type it.
+ *
+ * <p>Needs Postgres, so it runs with the plans suite: {@code mvn -Pplans test}.
+ */
+@Tag("plans")
+@SpringBootTest
+@ActiveProfiles("plans")
+@DirtiesContext(classMode = ClassMode.AFTER_CLASS)
+@TestExecutionListeners(
+    listeners = TestDatabases.class,
+    mergeMode = MergeMode.MERGE_WITH_DEFAULTS)
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FeedControllerTest {
+
+  private static final long EVICTION_TIMEOUT_MILLIS = 5_000;
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private UserRepository userRepository;
+
+  private CustomUserDetails author;
+
+  @DynamicPropertySource
+  static void database(DynamicPropertyRegistry registry) throws Exception {
+    LoadTestDatabase database =
+        TestDatabases.start(FeedControllerTest.class, LoadTestSettings.fromArgs(new String[0]));
+    registry.add("spring.datasource.url", database::jdbcUrl);
+    registry.add("spring.datasource.username", database::username);
+    registry.add("spring.datasource.password", database::password);
+  }
+
+  @BeforeAll
+  void author() {
+    User user = new User();
+    user.setName("Feed Author");
+    user.setEmail("feed-author@example.com");
+    user.setPassword("secret");
+    user.setUserRole(Role.AUTHOR);
+    author = new CustomUserDetails(userRepository.save(user));
+  }
+
+  @Test
+  void postCreatedWithoutTagsEntersCachedFeeds() throws Exception {
+    String authorFeed = "/authors/" + author.getUserId() + "/feed.xml";
+    // Cache both feeds first, so only an eviction can make the new post appear.
+    feed("/feed.xml");
+    feed(authorFeed);
+
+    long postId = createPost(Map.of("title", "Untagged", "content", "Posted over the API."));
+
+    awaitEntry("/feed.xml", postId);
+    awaitEntry(authorFeed, postId);
+  }
+
+  @Test
+  void tagFeedIsFoundByNameInAnyCase() throws Exception {
+    long postId =
+        createPost(Map.of("title", "Tagged", "content", "Tagged post.", "tagListString", "Feeds"));
+
+    awaitEntry("/tags/ FEEDS /feed.xml", postId);
+  }
+
+  private long createPost(Map<String, String> form) throws Exception {
+    String response =
+        mockMvc
+            .perform(
+                post("/api/posts")
+                    .with(user(author))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(form)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(response).get("id").asLong();
+  }
+
+  private String feed(String path) throws Exception {
+    return mockMvc
+        .perform(get(path))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+  }
+
+  /** Feeds are evicted after commit on another thread, so the entry may take a moment. */
+  private void awaitEntry(String path, long postId) throws Exception {
+    String entry = "/posts/" + postId + "</id>";
+    long deadline = System.currentTimeMillis() + EVICTION_TIMEOUT_MILLIS;
+    while (!feed(path).contains(entry)) {
+      assertTrue(System.currentTimeMillis() < deadline, path + " never listed post " + postId);
+      Thread.sleep(50);
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package com.blogapp.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.blogapp.loadtest.LoadTestDatabase;
+import com.blogapp.loadtest.LoadTestSettings;
+import com.blogapp.models.Role;
+import com.blogapp.models.User;
+import com.blogapp.repositories.UserRepository;
+import com.blogapp.security.CustomUserDetails;
+import com.blogapp.services.CounterMaintenanceJob;
+import com.blogapp.services.PostViewCounter;
+import com.blogapp.support.TestDatabases;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.TestExecutionListeners.MergeMode;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Counters on cached post responses follow the folds that change them, which evict nothing. Reads
+ * without a {@code User-Agent} are not counted as views.
+ *
+ * <p>Needs Postgres, so it runs with the plans suite: {@code mvn -Pplans test}.
+ */
+@Tag("plans")
+@SpringBootTest(properties = "blogapp.posts.response-cache.counters-ttl=0s")
+@ActiveProfiles("plans")
+@DirtiesContext(classMode = ClassMode.AFTER_CLASS)
+@TestExecutionListeners(
+    listeners = TestDatabases.class,
+    mergeMode = MergeMode.MERGE_WITH_DEFAULTS)
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PostControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private UserRepository userRepository;
+  @Autowired private CounterMaintenanceJob counterMaintenanceJob;
+  @Autowired private PostViewCounter postViewCounter;
+
+  private CustomUserDetails author;
+
+  @DynamicPropertySource
+  static void database(DynamicPropertyRegistry registry) throws Exception {
+    LoadTestDatabase database =
+        TestDatabases.start(PostControllerTest.class, LoadTestSettings.fromArgs(new String[0]));
+    registry.add("spring.datasource.url", database::jdbcUrl);
+    registry.add("spring.datasource.username", database::username);
+    registry.add("spring.datasource.password", database::password);
+  }
+
+  @BeforeAll
+  void author() {
+    User user = new User();
+    user.setName("Post Author");
+    user.setEmail("post-author@example.com");
+    user.setPassword("secret");
+    user.setUserRole(Role.AUTHOR);
+    author = new CustomUserDetails(userRepository.save(user));
+  }
+
+  @Test
+  void cachedResponseCountsCommentsOnceFolded() throws Exception {
+    long postId = createPost();
+    assertEquals(0, getPost(postId).get("commentCount").asLong());
+
+    mockMvc
+        .perform(
+            post("/api/posts/" + postId + "/comments")
+                .with(user(author))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("commentContent", "First!"))))
+        .andExpect(status().isCreated());
+    // Read before the fold, so the reloaded response is assembled with the old count.
+    assertEquals(1, getPost(postId).get("comments").size());
+    counterMaintenanceJob.fold();
+
+    JsonNode post = getPost(postId);
+    assertEquals(1, post.get("comments").size());
+    assertEquals(1, post.get("commentCount").asLong());
+    assertEquals(
+        post.get("comments").get(0).get("createdAt").asText(),
+        post.get("lastCommentAt").asText());
+  }
+
+  @Test
+  void cachedResponseCountsViewsOnceFolded() throws Exception {
+    long postId = createPost();
+    assertEquals(0, getPost(postId).get("viewCount").asLong());
+
+    mockMvc
+        .perform(get("/api/posts/" + postId).header("User-Agent", "Mozilla/5.0"))
+        .andExpect(status().isOk());
+    postViewCounter.flush();
+    counterMaintenanceJob.fold();
+
+    assertEquals(1, getPost(postId).get("viewCount").asLong());
+  }
+
+  private long createPost() throws Exception {
+    String response =
+        mockMvc
+            .perform(
+                post("/api/posts")
+                    .with(user(author))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(
+                        objectMapper.writeValueAsString(
+                            Map.of("title", "Counted", "content", "Comment on me."))))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(response).get("id").asLong();
+  }
+
+  private JsonNode getPost(long postId) throws Exception {
+    return objectMapper.readTree(
+        mockMvc
+            .perform(get("/api/posts/" + postId))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString());
+  }
+}
@@ -0,0 +1,7 @@
+package com.blogapp.loadtest;
+
+/**
+ * Ids of a generated dataset. Ids are dense from 1; tag ids are ordered by popularity, so tag 1 is
+ * the most used.
+ */
+public record Dataset(int users, int posts, int tags, long comments, String[] searchTerms) {}
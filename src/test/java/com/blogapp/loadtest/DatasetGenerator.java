@@ -0,0 +1,277 @@
+package com.blogapp.loadtest;
+
+import com.blogapp.models.PostBodyCodec;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Seeds the blog schema with a synthetic, reproducible dataset using batched JDBC inserts.
+ *
+ * <p>Tags follow a Zipf distribution, so a handful of tags appear on most posts. Every user's
+ * password is {@link #PASSWORD}, and users can log in as {@code user<N>@loadtest.local}.
+ *
+ * <p>Seeding truncates every blog table first. The embedded database is always seeded; one given by
+ * {@code jdbc-url} only with {@code reset-database=true}, and only while it has no users or posts.
+ */
+public class DatasetGenerator {
+
+  public static final String PASSWORD = "password";
+
+  private static final Logger log = LoggerFactory.getLogger(DatasetGenerator.class);
+  private static final int BATCH_SIZE = 1000;
+  private static final String[] WORDS = {
+    "spring", "postgres", "latency", "cache", "index", "query", "thread", "request", "the", "a",
+    "of", "and", "to", "in", "is", "that", "for", "with", "performance", "benchmark",
+    "hibernate", "transaction", "connection", "pool", "response", "template", "render", "java",
+    "kotlin", "docker", "kubernetes", "observability", "tracing", "garbage", "collector", "heap"
+  };
+  private static final String[] SEARCH_TERMS = {
+    "postgres", "latency", "cache", "hibernate", "kubernetes", "garbage collector", "tracing"
+  };
+  private static final Instant EPOCH = Instant.parse("2023-01-01T00:00:00Z");
+  private static final String INSERT_COMMENT =
+      "INSERT INTO comment (id, comment_writer_name, email, comment_content, post_id, user_id,"
+          + " created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final PostBodyCodec bodyCodec = new PostBodyCodec(4096, 6);
+
+  public DatasetGenerator(DataSource dataSource) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  public Dataset generate(LoadTestSettings settings) {
+    long started = System.nanoTime();
+    Random random = new Random(settings.seed());
+    checkDisposable(settings);
+    jdbcTemplate.execute(
+        "TRUNCATE TABLE counter_delta, comment, post_tag, post, tag, \"user\" "
+            + "RESTART IDENTITY CASCADE");
+
+    // Tags and comment counts are drawn up front so the denormalized counters are written with
+    // the rows instead of being recounted afterwards, which would leave a dead version of each.
+    List<Set<Integer>> postTags = drawPostTags(settings, random);
+    int[] commentCounts = new int[settings.posts()];
+    for (int i = 0; i < commentCounts.length; i++) {
+      commentCounts[i] = random.nextInt(2 * settings.commentsPerPost() + 1);
+    }
+
+    insertUsers(settings.users());
+    insertTags(settings.tags(), postTags);
+    insertPosts(settings, random, commentCounts);
+    insertPostTags(postTags);
+    long comments = insertComments(settings, random, commentCounts);
+
+    resetIdentity("\"user\"");
+    resetIdentity("tag");
+    resetIdentity("post");
+    resetIdentity("comment");
+    // Sets the visibility map as well, so index-only scans need not visit the heap.
+    jdbcTemplate.execute("VACUUM ANALYZE");
+
+    log.info(
+        "Seeded {} users, {} posts, {} tags and {} comments in {} ms",
+        settings.users(),
+        settings.posts(),
+        settings.tags(),
+        comments,
+        Duration.ofNanos(System.nanoTime() - started).toMillis());
+    return new Dataset(
+        settings.users(), settings.posts(), settings.tags(), comments, SEARCH_TERMS.clone());
+  }
+
+  private void checkDisposable(LoadTestSettings settings) {
+    if (settings.jdbcUrl() == null) {
+      return;
+    }
+    if (!settings.resetDatabase()) {
+      throw new IllegalStateException(
+          "Seeding replaces every user, post and comment in "
+              + settings.jdbcUrl()
+              + "; pass reset-database=true if that database may be wiped");
+    }
+    Boolean hasRows =
+        jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM post) OR EXISTS (SELECT 1 FROM \"user\")",
+            Boolean.class);
+    if (Boolean.TRUE.equals(hasRows)) {
+      throw new IllegalStateException(
+          "Refusing to seed " + settings.jdbcUrl() + ": post or \"user\" already has rows");
+    }
+  }
+
+  private void insertUsers(int users) {
+    String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+    List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+    for (int i = 1; i <= users; i++) {
+      rows.add(
+          new Object[] {
+            (long) i, "User " + i, "user" + i + "@loadtest.local", hash, i == 1 ? "ADMIN" : "AUTHOR"
+          });
+      flushIfFull(
+          "INSERT INTO \"user\" (id, name, email, password, user_role) VALUES (?, ?, ?, ?, ?)",
+          rows,
+          i == users);
+    }
+  }
+
+  private List<Set<Integer>> drawPostTags(LoadTestSettings settings, Random random) {
+    ZipfSampler tagSampler = new ZipfSampler(settings.tags(), settings.tagZipfExponent());
+    List<Set<Integer>> postTags = new ArrayList<>(settings.posts());
+    for (int post = 1; post <= settings.posts(); post++) {
+      int tagCount = Math.min(settings.tags(), 1 + random.nextInt(5));
+      Set<Integer> tags = new LinkedHashSet<>();
+      while (tags.size() < tagCount) {
+        tags.add(1 + tagSampler.sample(random));
+      }
+      postTags.add(tags);
+    }
+    return postTags;
+  }
+
+  private void insertTags(int tags, List<Set<Integer>> postTags) {
+    long[] postCounts = new long[tags + 1];
+    postTags.forEach(ids -> ids.forEach(tag -> postCounts[tag]++));
+    List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+    for (int i = 1; i <= tags; i++) {
+      Timestamp createdAt = Timestamp.from(EPOCH);
+      rows.add(new Object[] {(long) i, "tag-" + i, postCounts[i], createdAt, createdAt});
+      flushIfFull(
+          "INSERT INTO tag (id, name, post_count, created_at, updated_at) VALUES (?, ?, ?, ?, ?)",
+          rows,
+          i == tags);
+    }
+  }
+
+  private void insertPosts(LoadTestSettings settings, Random random, int[] commentCounts) {
+    long spanSeconds = Duration.ofDays(730).toSeconds();
+    List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+    for (int i = 1; i <= settings.posts(); i++) {
+      String content = content(random, 1000 + (int) Math.abs(random.nextGaussian() * 3000));
+      Timestamp publishedAt =
+          Timestamp.from(EPOCH.plusSeconds((long) (random.nextDouble() * spanSeconds)));
+      int comments = commentCounts[i - 1];
+      rows.add(
+          new Object[] {
+            (long) i,
+            "Post " + i + " about " + WORDS[random.nextInt(WORDS.length)],
+            excerpt(content),
+            bodyCodec.encode(content),
+            content,
+            (long) (1 + random.nextInt(settings.users())),
+            publishedAt,
+            true,
+            comments,
+            comments == 0 ? null : commentCreatedAt(i, comments - 1),
+            publishedAt,
+            publishedAt
+          });
+      flushIfFull(
+          "INSERT INTO post (id, title, excerpt, content_encoded, content_tsv, author_id,"
+              + " published_at, is_published, comment_count, last_comment_at, created_at,"
+              + " updated_at)"
+              + " VALUES (?, ?, ?, ?, to_tsvector('simple', ?), ?, ?, ?, ?, ?, ?, ?)",
+          rows,
+          i == settings.posts());
+    }
+  }
+
+  private void insertPostTags(List<Set<Integer>> postTags) {
+    List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+    for (int post = 1; post <= postTags.size(); post++) {
+      for (int tag : postTags.get(post - 1)) {
+        rows.add(new Object[] {(long) post, (long) tag});
+      }
+      flushIfFull(
+          "INSERT INTO post_tag (post_id, tag_id) VALUES (?, ?)", rows, post == postTags.size());
+    }
+  }
+
+  private long insertComments(LoadTestSettings settings, Random random, int[] commentCounts) {
+    List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+    long id = 0;
+    for (int post = 1; post <= settings.posts(); post++) {
+      for (int c = 0; c < commentCounts[post - 1]; c++) {
+        id++;
+        boolean registered = random.nextInt(5) == 0;
+        long userId = 1 + random.nextInt(settings.users());
+        Timestamp createdAt = commentCreatedAt(post, c);
+        rows.add(
+            new Object[] {
+              id,
+              registered ? "User " + userId : "Guest " + id,
+              registered ? "user" + userId + "@loadtest.local" : "guest" + id + "@example.com",
+              truncate(content(random, 40 + random.nextInt(150)), 255),
+              (long) post,
+              registered ? userId : null,
+              createdAt,
+              createdAt
+            });
+        flushIfFull(INSERT_COMMENT, rows, false);
+      }
+    }
+    flush(INSERT_COMMENT, rows);
+    return id;
+  }
+
+  private void flushIfFull(String sql, List<Object[]> rows, boolean last) {
+    if (last || rows.size() >= BATCH_SIZE) {
+      flush(sql, rows);
+    }
+  }
+
+  private void flush(String sql, List<Object[]> rows) {
+    if (!rows.isEmpty()) {
+      jdbcTemplate.batchUpdate(sql, rows);
+      rows.clear();
+    }
+  }
+
+  private void resetIdentity(String table) {
+    jdbcTemplate.execute(
+        "SELECT setval(pg_get_serial_sequence('"
+            + table
+            + "', 'id'), (SELECT COALESCE(MAX(id), 0) + 1 FROM "
+            + table
+            + "), false)");
+  }
+
+  private static Timestamp commentCreatedAt(int post, int comment) {
+    return Timestamp.from(EPOCH.plusSeconds(post * 3600L + comment * 60L));
+  }
+
+  private static String content(Random random, int length) {
+    StringBuilder content = new StringBuilder(length + 200);
+    while (content.length() < length) {
+      int words = 6 + random.nextInt(20);
+      for (int i = 0; i < words; i++) {
+        String word = WORDS[random.nextInt(WORDS.length)];
+        content.append(i == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word);
+        content.append(i < words - 1 ? ' ' : '.');
+      }
+      content.append(' ');
+    }
+    return content.toString().trim();
+  }
+
+  private static String truncate(String value, int maxLength) {
+    return value.length() <= maxLength ? value : value.substring(0, maxLength);
+  }
+
+  private static String excerpt(String content) {
+    int first = content.indexOf(". ");
+    int second = first < 0 ? -1 : content.indexOf(". ", first + 2);
+    return second < 0 ? content : content.substring(0, second + 1);
+  }
+}
@@ -0,0 +1,53 @@
+package com.blogapp.loadtest;
+
+import java.util.Arrays;
+
+/** Collects raw latencies for one operation; percentiles are computed exactly at report time. */
+final class LatencyRecorder {
+
+  private long[] latencies = new long[1024];
+  private int count;
+  private long errors;
+
+  synchronized void record(long nanos, boolean success) {
+    if (count == latencies.length) {
+      latencies = Arrays.copyOf(latencies, count * 2);
+    }
+    latencies[count++] = nanos;
+    if (!success) {
+      errors++;
+    }
+  }
+
+  synchronized Summary summarize(double seconds) {
+    long[] sorted = Arrays.copyOf(latencies, count);
+    Arrays.sort(sorted);
+    return new Summary(
+        count,
+        errors,
+        seconds > 0 ? count / seconds : 0,
+        percentile(sorted, 0.50),
+        percentile(sorted, 0.90),
+        percentile(sorted, 0.99),
+        percentile(sorted, 0.999),
+        count == 0 ? 0 : sorted[count - 1] / 1_000_000.0);
+  }
+
+  private static double percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return sorted[Math.max(0, index)] / 1_000_000.0;
+  }
+
+  record Summary(
+      long count,
+      long errors,
+      double throughput,
+      double p50Millis,
+      double p90Millis,
+      double p99Millis,
+      double p999Millis,
+      double maxMillis) {}
+}
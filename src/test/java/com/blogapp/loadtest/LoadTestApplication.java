@@ -0,0 +1,111 @@
+package com.blogapp.loadtest;
+
+import com.blogapp.BlogApplication;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * End-to-end load test: start Postgres and the application, seed a synthetic dataset, then drive
+ * an open-model request mix and report throughput and latency percentiles per endpoint.
+ *
+ * <p>Run with {@code mvn -Ploadtest -DskipTests verify}; pass settings through {@code
+ * -Dloadtest.args="posts=20000 rate=200"}. See {@link LoadTestSettings} for the options.
+ */
+public final class LoadTestApplication {
+
+  private LoadTestApplication() {}
+
+  public static void main(String[] args) throws Exception {
+    LoadTestSettings settings = LoadTestSettings.fromArgs(args);
+    try (LoadTestDatabase database = LoadTestDatabase.start(settings);
+        ConfigurableApplicationContext application = startApplication(database)) {
+      Dataset dataset =
+          new DatasetGenerator(application.getBean(DataSource.class)).generate(settings);
+      String baseUrl =
+          "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+
+      OpenModelLoadDriver driver = new OpenModelLoadDriver(settings, dataset, baseUrl);
+      System.out.printf("Warming up for %s at %.0f req/s%n", settings.warmup(), settings.rate());
+      driver.run(settings.warmup());
+
+      System.out.printf("Measuring for %s at %.0f req/s%n", settings.duration(), settings.rate());
+      OpenModelLoadDriver measured = new OpenModelLoadDriver(settings, dataset, baseUrl);
+      Map<Operation, LatencyRecorder> results = measured.run(settings.duration());
+      report(results, settings, measured.dropped());
+    }
+  }
+
+  private static ConfigurableApplicationContext startApplication(LoadTestDatabase database) {
+    // DevTools would relaunch the application in a restart class loader, dropping these properties.
+    System.setProperty("spring.devtools.restart.enabled", "false");
+    return new SpringApplicationBuilder(BlogApplication.class)
+        .run(
+            "--server.port=0",
+            "--spring.datasource.url=" + database.jdbcUrl(),
+            "--spring.datasource.username=" + database.username(),
+            "--spring.datasource.password=" + database.password(),
+            "--spring.datasource.hikari.maximum-pool-size=20",
+            "--blogapp.query-budget.enabled=false");
+  }
+
+  private static void report(
+      Map<Operation, LatencyRecorder> results, LoadTestSettings settings, long dropped)
+      throws IOException {
+    double seconds = settings.duration().toNanos() / 1e9;
+    String header =
+        String.format(
+            "%-32s %8s %7s %9s %9s %9s %9s %9s %9s",
+            "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms",
+            "max ms");
+    System.out.println(header);
+    Path resultsFile = Path.of(settings.resultsFile());
+    if (resultsFile.getParent() != null) {
+      Files.createDirectories(resultsFile.getParent());
+    }
+    try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(resultsFile))) {
+      csv.println("endpoint,count,errors,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+      for (Map.Entry<Operation, LatencyRecorder> entry : results.entrySet()) {
+        LatencyRecorder.Summary summary = entry.getValue().summarize(seconds);
+        if (summary.count() == 0) {
+          continue;
+        }
+        String label = entry.getKey().label();
+        System.out.println(
+            String.format(
+                Locale.ROOT,
+                "%-32s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                label,
+                summary.count(),
+                summary.errors(),
+                summary.throughput(),
+                summary.p50Millis(),
+                summary.p90Millis(),
+                summary.p99Millis(),
+                summary.p999Millis(),
+                summary.maxMillis()));
+        csv.println(
+            String.format(
+                Locale.ROOT,
+                "\"%s\",%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                label,
+                summary.count(),
+                summary.errors(),
+                summary.throughput(),
+                summary.p50Millis(),
+                summary.p90Millis(),
+                summary.p99Millis(),
+                summary.p999Millis(),
+                summary.maxMillis()));
+      }
+    }
+    System.out.printf("Dropped arrivals (max in flight reached): %d%n", dropped);
+    System.out.printf("Results written to %s%n", resultsFile.toAbsolutePath());
+  }
+}
@@ -0,0 +1,61 @@
+package com.blogapp.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * The Postgres instance a load test runs against: the one named by {@code jdbc-url}, or an
+ * embedded server started for the run and stopped on {@link #close()}.
+ *
+ * <p>Postgres refuses to start as root, so when running as root pass {@code jdbc-url} instead.
+ */
+public final class LoadTestDatabase implements AutoCloseable {
+
+  private final EmbeddedPostgres embedded;
+  private final String jdbcUrl;
+  private final String username;
+  private final String password;
+
+  private LoadTestDatabase(
+      EmbeddedPostgres embedded, String jdbcUrl, String username, String password) {
+    this.embedded = embedded;
+    this.jdbcUrl = jdbcUrl;
+    this.username = username;
+    this.password = password;
+  }
+
+  public static LoadTestDatabase start(LoadTestSettings settings) throws IOException {
+    if (settings.jdbcUrl() != null) {
+      return new LoadTestDatabase(
+          null, settings.jdbcUrl(), settings.jdbcUsername(), settings.jdbcPassword());
+    }
+    EmbeddedPostgres embedded = EmbeddedPostgres.builder().start();
+    return new LoadTestDatabase(
+        embedded, embedded.getJdbcUrl("postgres", "postgres"), "postgres", "postgres");
+  }
+
+  public String jdbcUrl() {
+    return jdbcUrl;
+  }
+
+  public String username() {
+    return username;
+  }
+
+  public String password() {
+    return password;
+  }
+
+  public DataSource dataSource() {
+    return new DriverManagerDataSource(jdbcUrl, username, password);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (embedded != null) {
+      embedded.close();
+    }
+  }
+}
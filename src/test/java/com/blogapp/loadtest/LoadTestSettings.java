@@ -0,0 +1,75 @@
+package com.blogapp.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Load-test knobs, read from {@code key=value} arguments (a leading {@code --} is optional).
+ *
+ * <p>Dataset: {@code users}, {@code posts}, {@code tags}, {@code comments-per-post}, {@code
+ * tag-zipf-exponent}, {@code post-zipf-exponent}, {@code seed}. Workload: {@code rate} (arrivals
+ * per second), {@code warmup}, {@code duration}, {@code max-in-flight} and {@code mix}, e.g. {@code
+ * home:20,post:40,search:15,tag:15,comment:10}. Database: {@code jdbc-url}, {@code
+ * jdbc-username} and {@code jdbc-password}; without a URL an embedded Postgres is started. Seeding
+ * empties the tables, so a database given by URL is only seeded with {@code reset-database=true},
+ * and never while it holds users or posts.
+ */
+public record LoadTestSettings(
+    int users,
+    int posts,
+    int tags,
+    int commentsPerPost,
+    double tagZipfExponent,
+    double postZipfExponent,
+    long seed,
+    double rate,
+    Duration warmup,
+    Duration duration,
+    int maxInFlight,
+    Map<Operation, Integer> mix,
+    String jdbcUrl,
+    String jdbcUsername,
+    String jdbcPassword,
+    boolean resetDatabase,
+    String resultsFile) {
+
+  public static LoadTestSettings fromArgs(String... args) {
+    Map<String, String> values = new LinkedHashMap<>();
+    for (String arg : args) {
+      String option = arg.startsWith("--") ? arg.substring(2) : arg;
+      int separator = option.indexOf('=');
+      if (separator > 0) {
+        values.put(option.substring(0, separator), option.substring(separator + 1));
+      }
+    }
+    return new LoadTestSettings(
+        Integer.parseInt(values.getOrDefault("users", "200")),
+        Integer.parseInt(values.getOrDefault("posts", "5000")),
+        Integer.parseInt(values.getOrDefault("tags", "300")),
+        Integer.parseInt(values.getOrDefault("comments-per-post", "10")),
+        Double.parseDouble(values.getOrDefault("tag-zipf-exponent", "1.1")),
+        Double.parseDouble(values.getOrDefault("post-zipf-exponent", "0.9")),
+        Long.parseLong(values.getOrDefault("seed", "42")),
+        Double.parseDouble(values.getOrDefault("rate", "100")),
+        DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+        DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+        Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+        parseMix(values.getOrDefault("mix", "home:20,post:40,search:15,tag:15,comment:10")),
+        values.get("jdbc-url"),
+        values.getOrDefault("jdbc-username", "postgres"),
+        values.getOrDefault("jdbc-password", "postgres"),
+        Boolean.parseBoolean(values.getOrDefault("reset-database", "false")),
+        values.getOrDefault("results-file", "target/loadtest-results.csv"));
+  }
+
+  private static Map<Operation, Integer> parseMix(String mix) {
+    Map<Operation, Integer> weights = new LinkedHashMap<>();
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.trim().split(":");
+      weights.put(Operation.fromKey(parts[0]), Integer.parseInt(parts[1]));
+    }
+    return weights;
+  }
+}
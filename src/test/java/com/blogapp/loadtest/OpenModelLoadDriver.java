@@ -0,0 +1,157 @@
+package com.blogapp.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues requests on a Poisson arrival schedule, independent of how fast the server responds.
+ *
+ * <p>Latency is measured from each request's scheduled start, not from when it was actually sent,
+ * so queueing behind a slow server shows up in the percentiles instead of being hidden
+ * (coordinated omission). Arrivals beyond {@code max-in-flight} are counted as dropped.
+ */
+final class OpenModelLoadDriver {
+
+  private final LoadTestSettings settings;
+  private final Dataset dataset;
+  private final String baseUrl;
+  private final HttpClient httpClient;
+  private final Operation[] schedule;
+  private final ZipfSampler postSampler;
+  private final ZipfSampler tagSampler;
+  private final AtomicLong dropped = new AtomicLong();
+
+  OpenModelLoadDriver(LoadTestSettings settings, Dataset dataset, String baseUrl) {
+    this.settings = settings;
+    this.dataset = dataset;
+    this.baseUrl = baseUrl;
+    this.httpClient =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    this.schedule = weightedSchedule(settings.mix());
+    this.postSampler = new ZipfSampler(dataset.posts(), settings.postZipfExponent());
+    this.tagSampler = new ZipfSampler(dataset.tags(), settings.tagZipfExponent());
+  }
+
+  /** Run for {@code duration} at {@code rate} arrivals per second and return per-op recorders. */
+  Map<Operation, LatencyRecorder> run(Duration duration) throws InterruptedException {
+    Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    for (Operation operation : Operation.values()) {
+      recorders.put(operation, new LatencyRecorder());
+    }
+    Random arrivals = new Random(settings.seed());
+    Semaphore inFlight = new Semaphore(settings.maxInFlight());
+    double meanGapNanos = 1_000_000_000.0 / settings.rate();
+    long start = System.nanoTime();
+    long end = start + duration.toNanos();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      long next = start;
+      while (next < end) {
+        long delay = next - System.nanoTime();
+        if (delay > 0) {
+          LockSupport.parkNanos(delay);
+        }
+        Operation operation = schedule[arrivals.nextInt(schedule.length)];
+        long intendedStart = next;
+        if (inFlight.tryAcquire()) {
+          executor.execute(
+              () -> {
+                try {
+                  boolean success = send(operation);
+                  recorders.get(operation).record(System.nanoTime() - intendedStart, success);
+                } finally {
+                  inFlight.release();
+                }
+              });
+        } else {
+          dropped.incrementAndGet();
+        }
+        next += (long) (-Math.log(1 - arrivals.nextDouble()) * meanGapNanos);
+      }
+      executor.shutdown();
+      executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+    return recorders;
+  }
+
+  long dropped() {
+    return dropped.get();
+  }
+
+  private boolean send(Operation operation) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    HttpRequest request =
+        switch (operation) {
+          case HOME -> get("/");
+          case POST -> get("/posts/" + randomPost(random));
+          case SEARCH -> get(
+              "/api/posts?limit=10&search="
+                  + dataset.searchTerms()[random.nextInt(dataset.searchTerms().length)]
+                      .replace(" ", "+"));
+          case TAG -> get("/api/posts?limit=10&tagId=" + (1 + tagSampler.sample(random)));
+          case COMMENT -> postComment(randomPost(random), random.nextLong());
+        };
+    try {
+      HttpResponse<Void> response =
+          httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+      return response.statusCode() < 400;
+    } catch (Exception e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      return false;
+    }
+  }
+
+  private long randomPost(ThreadLocalRandom random) {
+    return 1 + postSampler.sample(random);
+  }
+
+  private HttpRequest postComment(long postId, long nonce) {
+    String body =
+        "{\"commentContent\":\"Load test comment "
+            + nonce
+            + "\",\"commentWriterName\":\"Load Tester\",\"email\":\"load@example.com\"}";
+    return HttpRequest.newBuilder(URI.create(baseUrl + "/api/posts/" + postId + "/comments"))
+        .timeout(Duration.ofSeconds(30))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+  }
+
+  private HttpRequest get(String path) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .timeout(Duration.ofSeconds(30))
+        .GET()
+        .build();
+  }
+
+  private static Operation[] weightedSchedule(Map<Operation, Integer> mix) {
+    int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+    Operation[] schedule = new Operation[total];
+    int index = 0;
+    for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+      for (int i = 0; i < entry.getValue(); i++) {
+        schedule[index++] = entry.getKey();
+      }
+    }
+    return schedule;
+  }
+}
@@ -0,0 +1,31 @@
+package com.blogapp.loadtest;
+
+/** The request types the load driver can issue. */
+enum Operation {
+  HOME("home", "GET /"),
+  POST("post", "GET /posts/{id}"),
+  SEARCH("search", "GET /api/posts?search="),
+  TAG("tag", "GET /api/posts?tagId="),
+  COMMENT("comment", "POST /api/posts/{id}/comments");
+
+  private final String key;
+  private final String label;
+
+  Operation(String key, String label) {
+    this.key = key;
+    this.label = label;
+  }
+
+  String label() {
+    return label;
+  }
+
+  static Operation fromKey(String key) {
+    for (Operation operation : values()) {
+      if (operation.key.equalsIgnoreCase(key)) {
+        return operation;
+      }
+    }
+    throw new IllegalArgumentException("Unknown operation in mix: " + key);
+  }
+}
@@ -0,0 +1,176 @@
+package com.blogapp.loadtest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Cold-start benchmark: launch the packaged application repeatedly against a seeded database and
+ * measure the time from process start to the first successful {@code GET /} and to {@code
+ * /actuator/health/readiness} reporting up, which includes the warm-up runner.
+ *
+ * <p>Run with {@code mvn -Pstartup -DskipTests verify -Dstartup.args="runs=5"}. Besides the
+ * dataset and database options of {@link LoadTestSettings} it takes {@code jar} (the application
+ * jar), {@code jvm-args} (space separated, e.g. {@code "-XX:SharedArchiveFile=application.jsa
+ * -Dspring.aot.enabled=true"} with {@code jar=target/aot/BlogApp-0.0.1-SNAPSHOT.jar}), {@code
+ * runs} and {@code timeout} per launch. The application is started from the jar's directory.
+ */
+public final class StartupBenchmark {
+
+  private StartupBenchmark() {}
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> values = new LinkedHashMap<>();
+    for (String arg : args) {
+      String option = arg.startsWith("--") ? arg.substring(2) : arg;
+      int separator = option.indexOf('=');
+      if (separator > 0) {
+        values.put(option.substring(0, separator), option.substring(separator + 1));
+      }
+    }
+    LoadTestSettings settings = LoadTestSettings.fromArgs(args);
+    Path jar = Path.of(values.getOrDefault("jar", "target/BlogApp-0.0.1-SNAPSHOT.jar"));
+    String jvmArgs = values.getOrDefault("jvm-args", "").trim();
+    int runs = Integer.parseInt(values.getOrDefault("runs", "5"));
+    Duration timeout = DurationStyle.detectAndParse(values.getOrDefault("timeout", "120s"));
+    Path resultsFile = Path.of(values.getOrDefault("results-file", "target/startup-results.csv"));
+
+    try (LoadTestDatabase database = LoadTestDatabase.start(settings)) {
+      // Same settings as spring.flyway.* in application.properties; V3 builds its indexes
+      // concurrently, which would wait forever on a transactional advisory lock.
+      Flyway.configure()
+          .dataSource(database.jdbcUrl(), database.username(), database.password())
+          .locations("classpath:db/migration")
+          .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+          .load()
+          .migrate();
+      new DatasetGenerator(database.dataSource()).generate(settings);
+
+      List<String> command = new ArrayList<>();
+      command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+      if (!jvmArgs.isEmpty()) {
+        command.addAll(Arrays.asList(jvmArgs.split("\\s+")));
+      }
+      command.addAll(
+          List.of(
+              "-jar",
+              jar.getFileName().toString(),
+              "--spring.datasource.url=" + database.jdbcUrl(),
+              "--spring.datasource.username=" + database.username(),
+              "--spring.datasource.password=" + database.password(),
+              "--blogapp.query-budget.enabled=false"));
+
+      long[] firstRequest = new long[runs];
+      long[] ready = new long[runs];
+      Files.createDirectories(resultsFile.toAbsolutePath().getParent());
+      try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(resultsFile))) {
+        csv.println("run,first_request_ms,ready_ms");
+        for (int run = 0; run < runs; run++) {
+          long[] timings =
+              launch(command, jar, run, timeout, resultsFile.toAbsolutePath().getParent());
+          firstRequest[run] = timings[0];
+          ready[run] = timings[1];
+          System.out.printf(
+              "Run %d: first request after %d ms, ready after %d ms%n",
+              run + 1, timings[0], timings[1]);
+          csv.printf("%d,%d,%d%n", run + 1, timings[0], timings[1]);
+        }
+      }
+      report("first request", firstRequest);
+      report("ready", ready);
+      System.out.printf("Results written to %s%n", resultsFile.toAbsolutePath());
+    }
+  }
+
+  /** Start the application once and return the milliseconds to the first 2xx and to readiness. */
+  private static long[] launch(
+      List<String> command, Path jar, int run, Duration timeout, Path logDirectory)
+      throws IOException, InterruptedException {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    List<String> withPort = new ArrayList<>(command);
+    withPort.add("--server.port=" + port);
+    Path log = logDirectory.resolve("startup-run-" + (run + 1) + ".log");
+    HttpClient client =
+        HttpClient.newBuilder().connectTimeout(Duration.ofMillis(500)).build();
+
+    long started = System.nanoTime();
+    Process process =
+        // A class data sharing archive only matches when the jar is on the same relative path as
+        // in its training run, so launch from the jar's directory.
+        new ProcessBuilder(withPort)
+            .directory(jar.toAbsolutePath().getParent().toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+    try {
+      long deadline = started + timeout.toNanos();
+      long firstRequest = awaitSuccess(client, port, "/", process, deadline, log) - started;
+      long ready =
+          awaitSuccess(client, port, "/actuator/health/readiness", process, deadline, log)
+              - started;
+      return new long[] {firstRequest / 1_000_000, ready / 1_000_000};
+    } finally {
+      process.destroy();
+      if (!process.waitFor(30, TimeUnit.SECONDS)) {
+        process.destroyForcibly().waitFor();
+      }
+    }
+  }
+
+  private static long awaitSuccess(
+      HttpClient client, int port, String path, Process process, long deadline, Path log)
+      throws InterruptedException {
+    HttpRequest request =
+        HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .timeout(Duration.ofSeconds(5))
+            .GET()
+            .build();
+    while (System.nanoTime() < deadline) {
+      if (!process.isAlive()) {
+        throw new IllegalStateException("Application exited during startup, see " + log);
+      }
+      try {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status >= 200 && status < 300) {
+          return System.nanoTime();
+        }
+      } catch (IOException e) {
+        // Not listening yet.
+      }
+      Thread.sleep(10);
+    }
+    throw new IllegalStateException(path + " did not succeed before the timeout, see " + log);
+  }
+
+  private static void report(String label, long[] millis) {
+    long[] sorted = millis.clone();
+    Arrays.sort(sorted);
+    System.out.println(
+        String.format(
+            Locale.ROOT,
+            "%-14s min %6d ms  median %6d ms  max %6d ms",
+            label,
+            sorted[0],
+            sorted[sorted.length / 2],
+            sorted[sorted.length - 1]));
+  }
+}
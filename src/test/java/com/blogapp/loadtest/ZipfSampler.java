@@ -0,0 +1,34 @@
+package com.blogapp.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Samples ranks {@code 0..n-1} with probability proportional to {@code 1 / (rank + 1)^s}, so a few
+ * ranks (popular tags, hot posts) dominate and the rest form a long tail.
+ */
+final class ZipfSampler {
+
+  private final double[] cumulative;
+
+  ZipfSampler(int n, double exponent) {
+    if (n <= 0) {
+      throw new IllegalArgumentException("n must be positive");
+    }
+    cumulative = new double[n];
+    double total = 0;
+    for (int rank = 0; rank < n; rank++) {
+      total += 1.0 / Math.pow(rank + 1, exponent);
+      cumulative[rank] = total;
+    }
+    for (int rank = 0; rank < n; rank++) {
+      cumulative[rank] /= total;
+    }
+  }
+
+  int sample(RandomGenerator random) {
+    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+    int rank = index >= 0 ? index : -index - 1;
+    return Math.min(rank, cumulative.length - 1);
+  }
+}
@@ -0,0 +1,123 @@
+package com.blogapp.models;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class PostBodyCodecTest {
+
+  private static final int THRESHOLD = 64;
+
+  private final PostBodyCodec codec = new PostBodyCodec(THRESHOLD, 6);
+
+  @Test
+  void storesBodiesBelowTheThresholdRaw() {
+    String body = "a".repeat(THRESHOLD - 1);
+
+    byte[] stored = codec.encode(body);
+
+    assertEquals(PostBodyCodec.RAW, stored[0]);
+    assertEquals(THRESHOLD, stored.length);
+    assertEquals(body, codec.decode(stored));
+  }
+
+  @Test
+  void compressesBodiesFromTheThresholdOn() {
+    String body = "a".repeat(THRESHOLD);
+
+    byte[] stored = codec.encode(body);
+
+    assertEquals(PostBodyCodec.DEFLATE, stored[0]);
+    assertTrue(stored.length < THRESHOLD, "deflated to " + stored.length + " bytes");
+    assertEquals(body, codec.decode(stored));
+  }
+
+  @Test
+  void measuresTheThresholdInUtf8Bytes() {
+    // Two bytes per character, so half the threshold in characters reaches it in bytes.
+    String body = "é".repeat(THRESHOLD / 2);
+
+    byte[] stored = codec.encode(body);
+
+    assertEquals(PostBodyCodec.DEFLATE, stored[0]);
+    assertEquals(body, codec.decode(stored));
+  }
+
+  @Test
+  void roundTripsEmptyBody() {
+    assertArrayEquals(new byte[] {PostBodyCodec.RAW}, codec.encode(""));
+    assertEquals("", codec.decode(codec.encode("")));
+  }
+
+  @Test
+  void storesIncompressibleBodiesRaw() {
+    // No byte repeats, so deflate cannot make up for its own header.
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < THRESHOLD; i++) {
+      body.append((char) ('!' + i));
+    }
+
+    byte[] stored = codec.encode(body.toString());
+
+    assertEquals(PostBodyCodec.RAW, stored[0]);
+    assertEquals(body.toString(), codec.decode(stored));
+  }
+
+  @Test
+  void rejectsEmptyValue() {
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[0]));
+    assertEquals("Stored post body has no format marker", e.getMessage());
+  }
+
+  @Test
+  void rejectsUnknownMarker() {
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[] {7, 'a'}));
+    assertEquals("Unknown post body format marker 7", e.getMessage());
+  }
+
+  @Test
+  void rejectsTruncatedStream() {
+    byte[] stored = codec.encode("lorem ipsum ".repeat(THRESHOLD));
+    byte[] truncated = Arrays.copyOf(stored, stored.length / 2);
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(truncated));
+    assertEquals("Truncated compressed post body", e.getMessage());
+  }
+
+  @Test
+  void rejectsTruncatedHeader() {
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> codec.decode(new byte[] {PostBodyCodec.DEFLATE, 0, 0}));
+    assertEquals("Truncated compressed post body", e.getMessage());
+  }
+
+  @Test
+  void rejectsCorruptStream() {
+    byte[] stored = codec.encode("lorem ipsum ".repeat(THRESHOLD));
+    // Sets the block type bits of the first deflate block to 3, which is reserved.
+    stored[1 + Integer.BYTES] = (byte) 0xFF;
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(stored));
+    assertEquals("Corrupt compressed post body", e.getMessage());
+  }
+
+  @Test
+  void rejectsNegativeLength() {
+    byte[] stored = codec.encode("lorem ipsum ".repeat(THRESHOLD));
+    stored[1] = (byte) 0x80;
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(stored));
+    assertEquals("Corrupt compressed post body", e.getMessage());
+  }
+}
@@ -0,0 +1,52 @@
+package com.blogapp.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class SqlFingerprintTest {
+
+  @Test
+  void replacesLiteralsAndSquashesWhitespace() {
+    assertEquals(
+        "select * from post where id = ? and title = ? and score > ?",
+        SqlFingerprint.of("SELECT *\n  FROM post WHERE id = 42 AND title = 'It''s' AND score > 1.5"));
+  }
+
+  @Test
+  void collapsesInLists() {
+    assertEquals(
+        SqlFingerprint.of("select * from tag where id in (?)"),
+        SqlFingerprint.of("select * from tag where id IN ( ?, ?,? )"));
+  }
+
+  @Test
+  void keepsDigitsInsideIdentifiers() {
+    assertEquals(
+        "select t1_0.id from post t1_0 where t1_0.id=?",
+        SqlFingerprint.of("select t1_0.id from post t1_0 where t1_0.id=7"));
+  }
+
+  @Test
+  void nullIsEmpty() {
+    assertEquals("", SqlFingerprint.of(null));
+  }
+
+  @Test
+  void repeatedShapesFlagPerRowQueries() {
+    QueryStats stats = new QueryStats();
+    stats.recordStatement("select * from post limit 10");
+    for (int id = 1; id <= 10; id++) {
+      stats.recordStatement("select * from comment where post_id = " + id);
+    }
+
+    List<Map.Entry<String, Integer>> repeated = stats.repeatedShapes(5);
+
+    assertEquals(List.of(Map.entry("select * from comment where post_id = ?", 10)), repeated);
+    assertEquals(11, stats.getStatements());
+    assertTrue(stats.repeatedShapes(11).isEmpty());
+  }
+}
@@ -0,0 +1,73 @@
+package com.blogapp.plans;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Limits a query plan must stay within: tables it may sequentially scan, and ceilings on buffers
+ * touched and on row estimates. Failing any of them means the plan shape has regressed.
+ */
+final class PlanExpectation {
+
+  /** Tables that grow with content; scanning them sequentially is a regression by default. */
+  static final Set<String> LARGE_TABLES = Set.of("post", "comment", "post_tag");
+
+  private final Set<String> allowedSeqScans = new TreeSet<>();
+  private long maxSharedBuffers = Long.MAX_VALUE;
+  private long maxEstimatedRows = Long.MAX_VALUE;
+
+  static PlanExpectation expect() {
+    return new PlanExpectation();
+  }
+
+  /** Accept a sequential scan on {@code tables}, e.g. where no selective predicate exists. */
+  PlanExpectation allowSeqScan(String... tables) {
+    allowedSeqScans.addAll(Set.of(tables));
+    return this;
+  }
+
+  PlanExpectation maxSharedBuffers(long maxSharedBuffers) {
+    this.maxSharedBuffers = maxSharedBuffers;
+    return this;
+  }
+
+  PlanExpectation maxEstimatedRows(long maxEstimatedRows) {
+    this.maxEstimatedRows = maxEstimatedRows;
+    return this;
+  }
+
+  void verify(String scenario, QueryPlan plan) {
+    StringBuilder failures = new StringBuilder();
+    Set<String> unexpectedScans = new TreeSet<>(plan.seqScannedTables());
+    unexpectedScans.retainAll(LARGE_TABLES);
+    unexpectedScans.removeAll(allowedSeqScans);
+    if (!unexpectedScans.isEmpty()) {
+      failures.append("\n  sequential scan on ").append(unexpectedScans);
+    }
+    if (plan.sharedBuffers() > maxSharedBuffers) {
+      failures
+          .append("\n  shared buffers ")
+          .append(plan.sharedBuffers())
+          .append(" > ")
+          .append(maxSharedBuffers);
+    }
+    if (plan.maxEstimatedRows() > maxEstimatedRows) {
+      failures
+          .append("\n  estimated rows ")
+          .append(plan.maxEstimatedRows())
+          .append(" > ")
+          .append(maxEstimatedRows);
+    }
+    if (!failures.isEmpty()) {
+      throw new AssertionError(
+          "Plan regression in "
+              + scenario
+              + ":"
+              + failures
+              + "\n\n"
+              + plan.sql()
+              + "\n\n"
+              + plan.describe());
+    }
+  }
+}
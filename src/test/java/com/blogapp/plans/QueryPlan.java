@@ -0,0 +1,103 @@
+package com.blogapp.plans;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/** A parsed {@code EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON)} result. */
+final class QueryPlan {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final String sql;
+  private final JsonNode root;
+  private final double executionMillis;
+
+  private QueryPlan(String sql, JsonNode root, double executionMillis) {
+    this.sql = sql;
+    this.root = root;
+    this.executionMillis = executionMillis;
+  }
+
+  static QueryPlan parse(String sql, String explainJson) throws Exception {
+    JsonNode explain = MAPPER.readTree(explainJson).get(0);
+    return new QueryPlan(
+        sql, explain.get("Plan"), explain.path("Execution Time").asDouble());
+  }
+
+  String sql() {
+    return sql;
+  }
+
+  double executionMillis() {
+    return executionMillis;
+  }
+
+  /** Tables read by a sequential scan anywhere in the plan. */
+  Set<String> seqScannedTables() {
+    Set<String> tables = new TreeSet<>();
+    forEachNode(
+        node -> {
+          if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            tables.add(node.path("Relation Name").asText());
+          }
+        });
+    return tables;
+  }
+
+  /** Shared buffers hit plus read by the whole plan. */
+  long sharedBuffers() {
+    return root.path("Shared Hit Blocks").asLong() + root.path("Shared Read Blocks").asLong();
+  }
+
+  /** The largest row estimate of any node, a proxy for how much the planner expects to touch. */
+  long maxEstimatedRows() {
+    long[] max = {0};
+    forEachNode(node -> max[0] = Math.max(max[0], node.path("Plan Rows").asLong()));
+    return max[0];
+  }
+
+  /** An indented one-line-per-node rendering for failure messages. */
+  String describe() {
+    List<String> lines = new ArrayList<>();
+    describe(root, 0, lines);
+    return String.join("\n", lines);
+  }
+
+  private void describe(JsonNode node, int depth, List<String> lines) {
+    StringBuilder line = new StringBuilder("  ".repeat(depth)).append("-> ");
+    line.append(node.path("Node Type").asText());
+    if (node.has("Relation Name")) {
+      line.append(" on ").append(node.get("Relation Name").asText());
+    }
+    if (node.has("Index Name")) {
+      line.append(" using ").append(node.get("Index Name").asText());
+    }
+    line.append(" (est rows=")
+        .append(node.path("Plan Rows").asLong())
+        .append(", actual rows=")
+        .append(node.path("Actual Rows").asLong())
+        .append(", loops=")
+        .append(node.path("Actual Loops").asLong())
+        .append(", buffers=")
+        .append(node.path("Shared Hit Blocks").asLong() + node.path("Shared Read Blocks").asLong())
+        .append(')');
+    lines.add(line.toString());
+    for (JsonNode child : node.path("Plans")) {
+      describe(child, depth + 1, lines);
+    }
+  }
+
+  private void forEachNode(Consumer<JsonNode> visitor) {
+    List<JsonNode> pending = new ArrayList<>(List.of(root));
+    while (!pending.isEmpty()) {
+      JsonNode node = pending.remove(pending.size() - 1);
+      visitor.accept(node);
+      node.path("Plans").forEach(pending::add);
+    }
+  }
+}
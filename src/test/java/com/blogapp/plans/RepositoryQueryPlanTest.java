@@ -0,0 +1,237 @@
+package com.blogapp.plans;
+
+import static com.blogapp.plans.PlanExpectation.expect;
+
+import com.blogapp.loadtest.DatasetGenerator;
+import com.blogapp.loadtest.LoadTestDatabase;
+import com.blogapp.loadtest.LoadTestSettings;
+import com.blogapp.plans.StatementCapture.CapturedStatement;
+import com.blogapp.repositories.CommentRepository;
+import com.blogapp.repositories.PostRepository;
+import com.blogapp.repositories.TagRepository;
+import com.blogapp.support.QueryBudgetAssertions;
+import com.blogapp.support.TestDatabases;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.LongStream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestExecutionListeners.MergeMode;
+import org.springframework.test.context.TestExecutionListeners;
+
+/**
+ * Captures the SQL behind each repository query under representative filters, runs it under
+ * {@code EXPLAIN (ANALYZE, BUFFERS)} against a seeded Postgres and fails when the plan regresses.
+ *
+ * <p>Budgets are about twice what the current plans use on the generated dataset, and sequential
+ * scans on large tables are only allowed where the schema has no index to offer yet.
+ *
+ * <p>Tagged {@code plans} and skipped by default; run with {@code mvn -Pplans test}. Needs a
+ * Postgres it can start (not as root) or an empty one given by {@code -Dplans.jdbc-url=...} and
+ * {@code -Dplans.reset-database=true}.
+ */
+@Tag("plans")
+@SpringBootTest
+@ActiveProfiles("plans")
+@DirtiesContext(classMode = ClassMode.AFTER_CLASS)
+@TestExecutionListeners(
+    listeners = TestDatabases.class,
+    mergeMode = MergeMode.MERGE_WITH_DEFAULTS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+
+  private static final LoadTestSettings DATASET = datasetSettings();
+  private static final PageRequest FIRST_PAGE =
+      PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "publishedAt"));
+
+  @Autowired private DataSource dataSource;
+  @Autowired private PostRepository postRepository;
+  @Autowired private CommentRepository commentRepository;
+  @Autowired private TagRepository tagRepository;
+
+  private static LoadTestSettings datasetSettings() {
+    List<String> args =
+        new ArrayList<>(List.of("users=500", "posts=20000", "tags=500", "comments-per-post=10"));
+    String jdbcUrl = System.getProperty("plans.jdbc-url");
+    if (jdbcUrl != null) {
+      args.add("jdbc-url=" + jdbcUrl);
+      args.add("jdbc-username=" + System.getProperty("plans.jdbc-username", "postgres"));
+      args.add("jdbc-password=" + System.getProperty("plans.jdbc-password", "postgres"));
+      args.add("reset-database=" + System.getProperty("plans.reset-database", "false"));
+    }
+    return LoadTestSettings.fromArgs(args.toArray(String[]::new));
+  }
+
+  @DynamicPropertySource
+  static void database(DynamicPropertyRegistry registry) throws Exception {
+    LoadTestDatabase database = TestDatabases.start(RepositoryQueryPlanTest.class, DATASET);
+    registry.add("spring.datasource.url", database::jdbcUrl);
+    registry.add("spring.datasource.username", database::username);
+    registry.add("spring.datasource.password", database::password);
+  }
+
+  @BeforeAll
+  void seed() {
+    new DatasetGenerator(dataSource).generate(DATASET);
+  }
+
+  @Test
+  void searchWithoutFilters() throws Exception {
+    verify(
+        "PostRepository.findAll (no filters)",
+        () -> postRepository.findAll(null, null, "", null, null, 0, FIRST_PAGE),
+        expect().maxSharedBuffers(25_000).maxEstimatedRows(750_000));
+  }
+
+  @Test
+  void searchByText() throws Exception {
+    verify(
+        "PostRepository.findAll (text)",
+        () -> postRepository.findAll(null, null, "postgres", null, null, 0, FIRST_PAGE),
+        expect()
+            .allowSeqScan("post", "comment")
+            .maxSharedBuffers(50_000)
+            .maxEstimatedRows(300_000));
+  }
+
+  @Test
+  void searchByTag() throws Exception {
+    verify(
+        "PostRepository.findAll (tag)",
+        () -> postRepository.findAll(null, List.of(1L), "", null, null, 1, FIRST_PAGE),
+        expect().allowSeqScan("post").maxSharedBuffers(60_000).maxEstimatedRows(120_000));
+  }
+
+  @Test
+  void searchByAuthor() throws Exception {
+    verify(
+        "PostRepository.findAll (author)",
+        () -> postRepository.findAll(List.of("User 7"), null, "", null, null, 0, FIRST_PAGE),
+        expect().maxSharedBuffers(2_500).maxEstimatedRows(5_000));
+  }
+
+  @Test
+  void searchByDateRange() throws Exception {
+    verify(
+        "PostRepository.findAll (date range)",
+        () ->
+            postRepository.findAll(
+                null,
+                null,
+                "",
+                Instant.parse("2024-01-01T00:00:00Z"),
+                Instant.parse("2024-02-01T00:00:00Z"),
+                0,
+                FIRST_PAGE),
+        expect().allowSeqScan("post").maxSharedBuffers(12_000).maxEstimatedRows(40_000));
+  }
+
+  @Test
+  void distinctAuthors() throws Exception {
+    verify(
+        "PostRepository.findDistinctAuthors",
+        () -> postRepository.findDistinctAuthors(),
+        expect().maxSharedBuffers(100).maxEstimatedRows(25_000));
+  }
+
+  @Test
+  void commentsOfPost() throws Exception {
+    verify(
+        "CommentRepository.findAllByPostId",
+        () -> commentRepository.findAllByPostId(42L),
+        expect().maxSharedBuffers(100).maxEstimatedRows(1_000));
+  }
+
+  @Test
+  void postsPerTag() throws Exception {
+    verify(
+        "TagRepository.countPostsByTagId",
+        () -> tagRepository.countPostsByTagId(1L),
+        expect().maxSharedBuffers(100).maxEstimatedRows(12_000));
+  }
+
+  @Test
+  void batchFetchLoadsAuthorsAndTagsInOneStatement() throws Exception {
+    List<Long> ids = LongStream.rangeClosed(1, 50).boxed().toList();
+    QueryBudgetAssertions.assertAtMostStatements(
+        1,
+        () -> {
+          postRepository
+              .findAllWithAuthorAndTagsByIdIn(ids)
+              .forEach(
+                  post -> {
+                    post.getAuthor().getName();
+                    post.getTags().size();
+                  });
+          return null;
+        });
+  }
+
+  private void verify(String scenario, Callable<?> query, PlanExpectation expectation)
+      throws Exception {
+    List<CapturedStatement> statements = StatementCapture.capture(query);
+    if (statements.isEmpty()) {
+      throw new AssertionError(scenario + " issued no statements");
+    }
+    for (int i = 0; i < statements.size(); i++) {
+      QueryPlan plan = explain(statements.get(i));
+      if (Boolean.getBoolean("plans.print")) {
+        System.out.printf(
+            "%s #%d: %.2f ms, %d buffers, max est rows %d%n%s%n%n",
+            scenario,
+            i + 1,
+            plan.executionMillis(),
+            plan.sharedBuffers(),
+            plan.maxEstimatedRows(),
+            plan.describe());
+      }
+      expectation.verify(scenario + " statement " + (i + 1), plan);
+    }
+  }
+
+  private QueryPlan explain(CapturedStatement statement) throws Exception {
+    String explainSql = "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + statement.sql();
+    try (Connection connection = dataSource.getConnection()) {
+      String json = null;
+      // The first run warms the buffer cache so buffer counts are comparable between runs.
+      for (int run = 0; run < 2; run++) {
+        try (PreparedStatement explain = connection.prepareStatement(explainSql)) {
+          statement.bindTo(explain);
+          try (ResultSet result = explain.executeQuery()) {
+            result.next();
+            json = result.getString(1);
+          }
+        }
+      }
+      return QueryPlan.parse(statement.sql(), json);
+    }
+  }
+
+  @TestConfiguration
+  static class CaptureConfig {
+    @Bean
+    static BeanPostProcessor statementCaptureDataSource() {
+      return StatementCapture.dataSourceWrapper();
+    }
+  }
+}
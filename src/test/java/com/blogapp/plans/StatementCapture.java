@@ -0,0 +1,112 @@
+package com.blogapp.plans;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Records the prepared statements, with their bind calls, that an action executes on the current
+ * thread, so they can be replayed under {@code EXPLAIN}.
+ */
+final class StatementCapture {
+
+  private static final ThreadLocal<List<CapturedStatement>> CURRENT = new ThreadLocal<>();
+
+  private StatementCapture() {}
+
+  static List<CapturedStatement> capture(Callable<?> action) throws Exception {
+    List<CapturedStatement> statements = new ArrayList<>();
+    CURRENT.set(statements);
+    try {
+      action.call();
+    } finally {
+      CURRENT.remove();
+    }
+    return statements;
+  }
+
+  /** Bean post-processor wrapping the application data source; register in a test config. */
+  static BeanPostProcessor dataSourceWrapper() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof DataSource dataSource ? new CapturingDataSource(dataSource) : bean;
+      }
+    };
+  }
+
+  /** A prepared statement's SQL and the setter calls that bound its parameters. */
+  record CapturedStatement(String sql, List<BindCall> binds) {
+
+    void bindTo(PreparedStatement statement) throws Exception {
+      for (BindCall bind : binds) {
+        bind.method().invoke(statement, bind.args());
+      }
+    }
+  }
+
+  record BindCall(Method method, Object[] args) {}
+
+  private static final class CapturingDataSource extends DelegatingDataSource {
+
+    CapturingDataSource(DataSource target) {
+      super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws java.sql.SQLException {
+      Connection connection = obtainTargetDataSource().getConnection();
+      return (Connection)
+          Proxy.newProxyInstance(
+              Connection.class.getClassLoader(),
+              new Class<?>[] {Connection.class},
+              (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                if (result instanceof PreparedStatement statement
+                    && method.getName().equals("prepareStatement")
+                    && CURRENT.get() != null) {
+                  return recording(statement, (String) args[0]);
+                }
+                return result;
+              });
+    }
+
+    private static PreparedStatement recording(PreparedStatement target, String sql) {
+      List<BindCall> binds = new ArrayList<>();
+      InvocationHandler handler =
+          (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set")
+                && method.getParameterCount() >= 2
+                && method.getParameterTypes()[0] == int.class) {
+              binds.add(new BindCall(method, args.clone()));
+            } else if (name.startsWith("execute") && CURRENT.get() != null) {
+              CURRENT.get().add(new CapturedStatement(sql, List.copyOf(binds)));
+            }
+            return invoke(target, method, args);
+          };
+      return (PreparedStatement)
+          Proxy.newProxyInstance(
+              PreparedStatement.class.getClassLoader(),
+              new Class<?>[] {PreparedStatement.class},
+              handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+      try {
+        return method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getTargetException();
+      }
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package com.blogapp.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.blogapp.loadtest.LoadTestDatabase;
+import com.blogapp.loadtest.LoadTestSettings;
+import com.blogapp.models.Post;
+import com.blogapp.models.Role;
+import com.blogapp.models.User;
+import com.blogapp.support.TestDatabases;
+import java.time.Instant;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestExecutionListeners.MergeMode;
+import org.springframework.test.context.TestExecutionListeners;
+
+/**
+ * Pins down which body searches match now that bodies are searched through {@code content_tsv}
+ * rather than with {@code LIKE}, and that posts not yet moved off the old column still match by
+ * substring.
+ *
+ * <p>Needs Postgres, so it runs with the plans suite: {@code mvn -Pplans test}.
+ */
+@Tag("plans")
+@SpringBootTest
+@ActiveProfiles("plans")
+@DirtiesContext(classMode = ClassMode.AFTER_CLASS)
+@TestExecutionListeners(
+    listeners = TestDatabases.class,
+    mergeMode = MergeMode.MERGE_WITH_DEFAULTS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PostSearchTest {
+
+  @Autowired private PostRepository postRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @DynamicPropertySource
+  static void database(DynamicPropertyRegistry registry) throws Exception {
+    LoadTestDatabase database =
+        TestDatabases.start(PostSearchTest.class, LoadTestSettings.fromArgs(new String[0]));
+    registry.add("spring.datasource.url", database::jdbcUrl);
+    registry.add("spring.datasource.username", database::username);
+    registry.add("spring.datasource.password", database::password);
+  }
+
+  @BeforeAll
+  void posts() {
+    User author = new User();
+    author.setName("Author");
+    author.setEmail("author@example.com");
+    author.setPassword("secret");
+    author.setUserRole(Role.AUTHOR);
+    userRepository.save(author);
+
+    save(author, "Tuning", "Notes on PostgreSQL garbage collection and low-latency queues.");
+    jdbcTemplate.update(
+        "INSERT INTO post (title, excerpt, content, author_id, published_at, is_published,"
+            + " created_at, updated_at) VALUES ('Legacy', '', ?, ?, now(), true, now(), now())",
+        "Written before bodies were encoded: a Zeppelin crossing.",
+        author.getId());
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "postgresql, Tuning",
+    "postgr, Tuning",
+    "PostgreSQL garbage, Tuning",
+    "garbage coll, Tuning",
+    "low-latency, Tuning",
+    "LOW LATENCY QUEUE, Tuning",
+    "collector garbage, ''",
+    "gres, ''",
+    "eppel, Legacy",
+    "'a zeppelin', Legacy",
+  })
+  void matches(String search, String titles) {
+    Set<String> found =
+        postRepository.findAll(null, null, search, null, null, 0, PageRequest.of(0, 10)).stream()
+            .map(Post::getTitle)
+            .collect(Collectors.toSet());
+
+    assertEquals(titles.isEmpty() ? Set.of() : Set.of(titles), found, search);
+  }
+
+  private void save(User author, String title, String content) {
+    Post post = new Post();
+    post.setTitle(title);
+    post.setExcerpt("");
+    post.setContent(content);
+    post.setAuthor(author);
+    post.setPublished(true);
+    post.setPublishedAt(Instant.now());
+    postRepository.save(post);
+  }
+}
@@ -0,0 +1,146 @@
+package com.blogapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+class TrendingPostsTest {
+
+  private static final Duration HALF_LIFE = Duration.ofHours(6);
+  private static final double DECAY_PER_MILLI = Math.log(2) / HALF_LIFE.toMillis();
+  private static final double COMMENT_WEIGHT = 5;
+  private static final long POST = 7;
+
+  private final StubJdbcTemplate jdbcTemplate = new StubJdbcTemplate();
+  private final TrendingPosts trending =
+      new TrendingPosts(jdbcTemplate, new ObjectMapper(), HALF_LIFE, 1, COMMENT_WEIGHT, 10, 0.01);
+
+  @Test
+  void mergesScoresAsTimeIndependentRankKeys() {
+    Instant first = Instant.now();
+    Instant second = first.plusSeconds(60);
+    trending.recordComment(POST, first);
+    trending.recordComment(POST, second);
+
+    trending.flush();
+
+    // log(w * e^(decay * t1) + w * e^(decay * t2)), whatever the epoch of the generation.
+    long apart = second.toEpochMilli() - first.toEpochMilli();
+    double expected = rankKey(first) + Math.log1p(Math.exp(DECAY_PER_MILLI * apart));
+    assertEquals(1, jdbcTemplate.merged.size());
+    assertEquals(expected, jdbcTemplate.merged.get(0).get(POST), 1e-6);
+  }
+
+  @Test
+  void retriesAFailedMergeExactlyOnce() {
+    Instant at = Instant.now();
+    trending.recordComment(POST, at);
+    jdbcTemplate.failNextMerge = true;
+
+    trending.flush();
+    assertTrue(jdbcTemplate.merged.isEmpty());
+    trending.flush();
+    trending.flush();
+
+    assertEquals(1, jdbcTemplate.merged.size());
+    assertEquals(rankKey(at), jdbcTemplate.merged.get(0).get(POST), 1e-6);
+  }
+
+  @Test
+  void mergesALateIncrementExactlyOnce() {
+    Instant at = Instant.now();
+    Instant late = at.plusSeconds(1);
+    trending.recordComment(POST, at);
+    TrendingPosts.Generation read = trending.currentGeneration();
+    trending.flush();
+
+    // Reaches the generation the flush above has already read.
+    trending.add(read, POST, COMMENT_WEIGHT, late.toEpochMilli());
+    trending.flush();
+    trending.flush();
+
+    assertEquals(2, jdbcTemplate.merged.size());
+    assertEquals(rankKey(at), jdbcTemplate.merged.get(0).get(POST), 1e-6);
+    assertEquals(rankKey(late), jdbcTemplate.merged.get(1).get(POST), 1e-6);
+  }
+
+  private static double rankKey(Instant at) {
+    return Math.log(COMMENT_WEIGHT) + DECAY_PER_MILLI * at.toEpochMilli();
+  }
+
+  /** Records each successful merge as rank keys by post id; pruning and the reload do nothing. */
+  private static final class StubJdbcTemplate extends JdbcTemplate {
+
+    private final List<Map<Long, Double>> merged = new ArrayList<>();
+    private boolean failNextMerge;
+
+    @Override
+    public int update(String sql, PreparedStatementSetter setter) {
+      if (failNextMerge) {
+        failNextMerge = false;
+        throw new DataAccessResourceFailureException("Database is down");
+      }
+      Object[][] arrays = new Object[2][];
+      try {
+        Connection connection = mock(Connection.class);
+        when(connection.createArrayOf(anyString(), any()))
+            .thenAnswer(
+                invocation -> {
+                  Array array = mock(Array.class);
+                  when(array.getArray()).thenReturn(invocation.getArgument(1));
+                  return array;
+                });
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.getConnection()).thenReturn(connection);
+        doAnswer(
+                invocation -> {
+                  Array array = invocation.getArgument(1);
+                  arrays[(int) invocation.getArgument(0) - 1] = (Object[]) array.getArray();
+                  return null;
+                })
+            .when(statement)
+            .setArray(anyInt(), any());
+        setter.setValues(statement);
+      } catch (SQLException e) {
+        throw new IllegalStateException(e);
+      }
+      Map<Long, Double> rankKeys = new HashMap<>();
+      for (int i = 0; i < arrays[0].length; i++) {
+        rankKeys.put((Long) arrays[0][i], (Double) arrays[1][i]);
+      }
+      merged.add(rankKeys);
+      return rankKeys.size();
+    }
+
+    @Override
+    public int update(String sql, Object... args) {
+      return 0;
+    }
+
+    @Override
+    public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+      return List.of();
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.blogapp.support;
+
+import com.blogapp.monitoring.QueryStats;
+import com.blogapp.monitoring.QueryStatsHolder;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Test helper for asserting how much SQL an action issues, e.g.
+ *
+ * <pre>{@code
+ * QueryBudgetAssertions.assertAtMostStatements(4, () -> mockMvc.perform(get("/")));
+ * }</pre>
+ *
+ * <p>Works with MockMvc because the request runs on the calling thread.
+ */
+public final class QueryBudgetAssertions {
+
+  private QueryBudgetAssertions() {}
+
+  /** Run the action and fail if it issued more than {@code maxStatements} SQL statements. */
+  public static QueryStats assertAtMostStatements(int maxStatements, Callable<?> action)
+      throws Exception {
+    QueryStats stats = QueryStatsHolder.capture(action);
+    if (stats.getStatements() > maxStatements) {
+      throw new AssertionError(
+          "Expected at most " + maxStatements + " statements but got " + describe(stats));
+    }
+    return stats;
+  }
+
+  /** Run the action and fail if any statement shape was executed {@code threshold} times or more. */
+  public static QueryStats assertNoRepeatedStatements(int threshold, Callable<?> action)
+      throws Exception {
+    QueryStats stats = QueryStatsHolder.capture(action);
+    if (!stats.repeatedShapes(threshold).isEmpty()) {
+      throw new AssertionError("Likely N+1 detected: " + describe(stats));
+    }
+    return stats;
+  }
+
+  private static String describe(QueryStats stats) {
+    StringBuilder description = new StringBuilder(stats.toString());
+    for (Map.Entry<String, Integer> shape : stats.repeatedShapes(1)) {
+      description.append(System.lineSeparator())
+          .append("  ")
+          .append(shape.getValue())
+          .append("x ")
+          .append(shape.getKey());
+    }
+    return description.toString();
+  }
+}
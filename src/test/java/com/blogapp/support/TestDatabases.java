@@ -0,0 +1,53 @@
+package com.blogapp.support;
+
+import com.blogapp.loadtest.LoadTestDatabase;
+import com.blogapp.loadtest.LoadTestSettings;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.core.Ordered;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+/**
+ * Postgres for a Spring test class, stopped only once the class's context has closed, e.g.
+ *
+ * <pre>{@code
+ * @DirtiesContext(classMode = ClassMode.AFTER_CLASS)
+ * @TestExecutionListeners(listeners = TestDatabases.class, mergeMode = MERGE_WITH_DEFAULTS)
+ * class SomeTest {
+ *   @DynamicPropertySource
+ *   static void database(DynamicPropertyRegistry registry) throws Exception {
+ *     LoadTestDatabase database = TestDatabases.start(SomeTest.class, settings);
+ *     ...
+ * }</pre>
+ *
+ * <p>Stopping it from {@code @AfterAll} instead would leave the pool and background jobs of the
+ * still-open context retrying a dead server.
+ */
+public final class TestDatabases extends AbstractTestExecutionListener {
+
+  private static final Map<Class<?>, LoadTestDatabase> running = new ConcurrentHashMap<>();
+
+  /** Start the database for {@code testClass}. */
+  public static LoadTestDatabase start(Class<?> testClass, LoadTestSettings settings)
+      throws IOException {
+    LoadTestDatabase database = LoadTestDatabase.start(settings);
+    running.put(testClass, database);
+    return database;
+  }
+
+  /** After-class callbacks run in reverse order, so this one follows the context being closed. */
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE;
+  }
+
+  @Override
+  public void afterTestClass(TestContext testContext) throws Exception {
+    LoadTestDatabase database = running.remove(testContext.getTestClass());
+    if (database != null) {
+      database.close();
+    }
+  }
+}